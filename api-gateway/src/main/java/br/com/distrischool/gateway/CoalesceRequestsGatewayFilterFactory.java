@@ -0,0 +1,225 @@
+package br.com.distrischool.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Single-flight para GETs idênticos em andamento: {@code - name: CoalesceRequests, args: {max-wait: 5s}}.
+ *
+ * A primeira requisição de uma chave (rota, URI, credencial, Accept, Accept-Encoding) vai à origem e
+ * as que chegam enquanto ela está em andamento recebem a mesma resposta. Não é cache: a chave sai do
+ * mapa quando a resposta termina. Quem espera mais que max-wait, ou cuja resposta não pode ser
+ * compartilhada (streaming, corpo acima de max-body-size, líder cancelado), faz a própria chamada.
+ * Falhas da origem são repassadas a todos os que esperavam, sem multiplicar as tentativas.
+ */
+@Component
+public class CoalesceRequestsGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<CoalesceRequestsGatewayFilterFactory.Config> {
+
+  public static final String COALESCED = "X-Coalesced";
+
+  // depois do ResponseCache e antes do NettyWriteResponseFilter, que escreve o corpo
+  static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+  private final ConcurrentMap<Key, Sinks.One<SharedResponse>> emAndamento = new ConcurrentHashMap<>();
+  private final MeterRegistry meterRegistry;
+
+  public CoalesceRequestsGatewayFilterFactory(MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public List<String> shortcutFieldOrder() {
+    return List.of("maxWait");
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    return new OrderedGatewayFilter((exchange, chain) -> {
+      if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+        return chain.filter(exchange);
+      }
+      Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+      HttpHeaders headers = exchange.getRequest().getHeaders();
+      Key key = new Key(route.getId(),
+          exchange.getRequest().getURI().toString(),
+          ResponseCacheGatewayFilterFactory.credential(headers.getFirst(HttpHeaders.AUTHORIZATION)),
+          headers.getFirst(HttpHeaders.ACCEPT),
+          headers.getFirst(HttpHeaders.ACCEPT_ENCODING));
+
+      Sinks.One<SharedResponse> novo = Sinks.one();
+      Sinks.One<SharedResponse> lider = emAndamento.putIfAbsent(key, novo);
+      if (lider != null) {
+        return follow(exchange, chain, lider, key.routeId(), config);
+      }
+      return lead(exchange, chain, key, novo, config);
+    }, ORDER);
+  }
+
+  private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, Key key,
+                          Sinks.One<SharedResponse> sink, Config config) {
+    LeaderResponse response = new LeaderResponse(exchange.getResponse(), sink, config.getMaxBodySize().toBytes());
+    return chain.filter(exchange.mutate().response(response).build())
+        .doOnError(e -> sink.tryEmitError(e))
+        .doFinally(signal -> {
+          emAndamento.remove(key, sink);
+          // cancelado ou sem corpo compartilhável: quem espera segue sozinho
+          sink.tryEmitEmpty();
+        });
+  }
+
+  private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain,
+                            Sinks.One<SharedResponse> lider, String routeId, Config config) {
+    return lider.asMono()
+        .timeout(config.getMaxWait())
+        .map(shared -> {
+          counter("gateway.requests.coalesced", routeId, null).increment();
+          return writeShared(exchange.getResponse(), shared);
+        })
+        .onErrorResume(TimeoutException.class, e -> Mono.fromSupplier(() -> {
+          counter("gateway.requests.coalesce.fallback", routeId, "timeout").increment();
+          return chain.filter(exchange);
+        }))
+        .switchIfEmpty(Mono.fromSupplier(() -> {
+          counter("gateway.requests.coalesce.fallback", routeId, "unshareable").increment();
+          return chain.filter(exchange);
+        }))
+        .flatMap(Function.identity());
+  }
+
+  private static Mono<Void> writeShared(ServerHttpResponse response, SharedResponse shared) {
+    response.setStatusCode(shared.status());
+    // sem sobrescrever o que os filtros desta requisição já definiram (X-RateLimit-Remaining, X-Cache)
+    HttpHeaders headers = response.getHeaders();
+    shared.headers().forEach((nome, valores) -> {
+      if (!headers.containsKey(nome)) {
+        headers.put(nome, valores);
+      } else if (HttpHeaders.VARY.equalsIgnoreCase(nome)) {
+        // o Vary da origem soma-se ao do CORS desta requisição
+        valores.stream().filter(v -> !headers.getOrEmpty(HttpHeaders.VARY).contains(v))
+            .forEach(v -> headers.add(HttpHeaders.VARY, v));
+      }
+    });
+    headers.setContentLength(shared.body().length);
+    headers.set(COALESCED, "true");
+    return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(shared.body())));
+  }
+
+  private Counter counter(String name, String routeId, String reason) {
+    Counter.Builder builder = Counter.builder(name).tag("route", routeId);
+    if (reason != null) {
+      builder.tag("reason", reason);
+    }
+    return builder.register(meterRegistry);
+  }
+
+  /**
+   * Resposta do líder: vai ao cliente normalmente e, ao terminar, é entregue a quem esperava.
+   */
+  private static class LeaderResponse extends ServerHttpResponseDecorator {
+
+    private final Sinks.One<SharedResponse> sink;
+    private final long maxBodySize;
+    private final ByteArrayOutputStream copia = new ByteArrayOutputStream();
+    private boolean grandeDemais;
+
+    LeaderResponse(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink, long maxBodySize) {
+      super(delegate);
+      this.sink = sink;
+      this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      return super.writeWith(Flux.from(body).doOnNext(this::record))
+          .doOnSuccess(v -> {
+            if (grandeDemais || getStatusCode() == null) {
+              sink.tryEmitEmpty();
+            } else {
+              sink.tryEmitValue(new SharedResponse(getStatusCode(),
+                  ResponseCacheGatewayFilterFactory.storableHeaders(getHeaders()), copia.toByteArray()));
+            }
+          });
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+      // streaming não é bufferizado para ser repetido
+      sink.tryEmitEmpty();
+      return super.writeAndFlushWith(body);
+    }
+
+    private void record(DataBuffer buffer) {
+      if (grandeDemais) {
+        return;
+      }
+      if (copia.size() + buffer.readableByteCount() > maxBodySize) {
+        grandeDemais = true;
+        copia.reset();
+        return;
+      }
+      try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+        while (it.hasNext()) {
+          ByteBuffer bb = it.next();
+          byte[] bytes = new byte[bb.remaining()];
+          bb.get(bytes);
+          copia.write(bytes, 0, bytes.length);
+        }
+      }
+    }
+  }
+
+  record Key(String routeId, String uri, String credential, String accept, String acceptEncoding) {}
+
+  record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {}
+
+  public static class Config {
+    private Duration maxWait = Duration.ofSeconds(5);
+    private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+    public Duration getMaxWait() {
+      return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+      this.maxWait = maxWait;
+    }
+
+    public DataSize getMaxBodySize() {
+      return maxBodySize;
+    }
+
+    public void setMaxBodySize(DataSize maxBodySize) {
+      this.maxBodySize = maxBodySize;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package br.com.distrischool.gateway;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Agrega as listagens do dashboard numa única resposta: {@code - name: Dashboard, args: {timeout: 2s, sections: {...}}}.
+ *
+ * Cada seção (nome -> URL da listagem no serviço) é pedida em paralelo, com timeout próprio, e a
+ * resposta sai quando a mais lenta termina ou estoura o timeout. Uma seção que falha vem com
+ * status UNAVAILABLE e o motivo, sem derrubar as demais. A rota não tem origem: este filtro responde,
+ * depois do JwtAuthenticationFilter e dos filtros da rota (LocalRateLimit etc.), e repassa aos serviços
+ * o Authorization e os headers X-User-* já verificados.
+ */
+@Component
+public class DashboardGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<DashboardGatewayFilterFactory.Config> {
+
+  private static final Logger log = LoggerFactory.getLogger(DashboardGatewayFilterFactory.class);
+
+  private static final int MAX_SIZE = 50;
+
+  private static final List<String> FORWARDED = List.of(
+      HttpHeaders.AUTHORIZATION, HttpHeaders.ACCEPT_LANGUAGE,
+      JwtAuthenticationFilter.USER_ID, JwtAuthenticationFilter.USER_EMAIL, JwtAuthenticationFilter.USER_ROLE,
+      JwtAuthenticationFilter.USER_SIGNATURE);
+
+  private final WebClient webClient;
+  private final ObjectMapper objectMapper;
+
+  public DashboardGatewayFilterFactory(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
+    super(Config.class);
+    this.webClient = webClientBuilder.build();
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    return (exchange, chain) -> {
+      ServerHttpRequest request = exchange.getRequest();
+      int size = size(request.getQueryParams().getFirst("size"), config.getSize());
+
+      // flatMapSequential: todas as chamadas saem juntas e o resultado mantém a ordem das seções
+      return Flux.fromIterable(config.getSections().entrySet())
+          .flatMapSequential(section -> fetch(section.getKey(), section.getValue(), size, request, config.getTimeout())
+              .map(result -> Map.entry(section.getKey(), result)))
+          .collect(LinkedHashMap<String, Section>::new, (secoes, e) -> secoes.put(e.getKey(), e.getValue()))
+          .flatMap(secoes -> write(exchange.getResponse(), secoes));
+    };
+  }
+
+  private Mono<Section> fetch(String name, URI uri, int size, ServerHttpRequest request, Duration timeout) {
+    long inicio = System.nanoTime();
+    return webClient.get()
+        .uri(UriComponentsBuilder.fromUri(uri).replaceQueryParam("size", size).build(true).toUri())
+        .accept(MediaType.APPLICATION_JSON)
+        .headers(h -> FORWARDED.forEach(nome -> {
+          List<String> valores = request.getHeaders().get(nome);
+          if (valores != null) {
+            h.put(nome, valores);
+          }
+        }))
+        .retrieve()
+        .bodyToMono(JsonNode.class)
+        .timeout(timeout)
+        .map(body -> Section.available(body, elapsed(inicio)))
+        .onErrorResume(e -> {
+          String motivo = reason(e, timeout);
+          log.warn("Dashboard: seção {} indisponível ({})", name, motivo);
+          return Mono.just(Section.unavailable(motivo, elapsed(inicio)));
+        });
+  }
+
+  private Mono<Void> write(ServerHttpResponse response, Map<String, Section> secoes) {
+    Map<String, Object> body = new LinkedHashMap<>();
+    body.put("complete", secoes.values().stream().allMatch(s -> s.status() == Section.Status.OK));
+    body.put("sections", secoes);
+    byte[] bytes;
+    try {
+      bytes = objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException e) {
+      return Mono.error(e);
+    }
+    // resposta parcial continua 200: o marcador de cada seção diz o que faltou
+    response.setStatusCode(HttpStatus.OK);
+    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    response.getHeaders().setContentLength(bytes.length);
+    return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(bytes)));
+  }
+
+  private static int size(String pedido, int padrao) {
+    if (pedido == null) {
+      return padrao;
+    }
+    try {
+      return Math.max(1, Math.min(MAX_SIZE, Integer.parseInt(pedido)));
+    } catch (NumberFormatException e) {
+      return padrao;
+    }
+  }
+
+  private static String reason(Throwable e, Duration timeout) {
+    if (e instanceof TimeoutException) {
+      return "timeout após " + timeout.toMillis() + "ms";
+    }
+    if (e instanceof WebClientResponseException http) {
+      return "HTTP " + http.getStatusCode().value();
+    }
+    if (e instanceof WebClientRequestException) {
+      return "falha de conexão";
+    }
+    return e.getClass().getSimpleName();
+  }
+
+  private static long elapsed(long inicio) {
+    return Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+  }
+
+  /**
+   * Seção do dashboard: a página pedida ao serviço (items) e, quando ele informa, o total de registros.
+   * Alunos paginam por cursor, sem COUNT, então vêm sem total.
+   */
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  record Section(Status status, Long total, JsonNode items, String error, long elapsedMs) {
+
+    enum Status { OK, UNAVAILABLE }
+
+    static Section available(JsonNode body, long elapsedMs) {
+      JsonNode items = body.isArray() ? body : body.path("content");
+      JsonNode total = body.path("totalElements").isNumber() ? body.path("totalElements")
+          : body.path("page").path("totalElements");
+      return new Section(Status.OK, total.isNumber() ? total.asLong() : null,
+          items.isMissingNode() ? null : items, null, elapsedMs);
+    }
+
+    static Section unavailable(String error, long elapsedMs) {
+      return new Section(Status.UNAVAILABLE, null, null, error, elapsedMs);
+    }
+  }
+
+  public static class Config {
+    private Duration timeout = Duration.ofSeconds(2);
+    private int size = 5;
+    // o binder dos args não preserva a ordem do yml; em ordem alfabética a resposta ao menos é estável
+    private Map<String, URI> sections = new TreeMap<>();
+
+    public Duration getTimeout() {
+      return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+      this.timeout = timeout;
+    }
+
+    public int getSize() {
+      return size;
+    }
+
+    public void setSize(int size) {
+      this.size = size;
+    }
+
+    public Map<String, URI> getSections() {
+      return sections;
+    }
+
+    public void setSections(Map<String, URI> sections) {
+      this.sections = new TreeMap<>(sections);
+    }
+  }
+}
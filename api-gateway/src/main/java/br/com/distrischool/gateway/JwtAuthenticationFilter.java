@@ -0,0 +1,167 @@
+package br.com.distrischool.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifica os tokens Bearer emitidos pelo user-service (POST /api/auth/login) e repassa
+ * a identidade aos serviços nos headers X-User-*.
+ *
+ * A assinatura é conferida localmente com a chave pública do JWKS, que o decoder mantém em cache
+ * e só rebusca quando aparece um kid desconhecido. Tokens já verificados ficam num cache limitado
+ * até expirarem, então a maior parte das requisições não refaz nem a verificação RSA.
+ *
+ * Com app.auth.identity-secret definido, a identidade segue assinada em X-User-Signature
+ * ({@code <epoch>.<HMAC-SHA256 de id, e-mail, papel e epoch>}): o serviço que confia nos headers
+ * (hoje só o aluno-service) confere a assinatura, já que também pode ser chamado sem passar pelo gateway.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+  public static final String USER_ID = "X-User-Id";
+  public static final String USER_EMAIL = "X-User-Email";
+  public static final String USER_ROLE = "X-User-Role";
+  public static final String USER_SIGNATURE = "X-User-Signature";
+
+  private static final String BEARER = "Bearer ";
+
+  private final ReactiveJwtDecoder decoder;
+  private final Cache<String, Identity> verificados;
+  private final SecretKeySpec identityKey;
+
+  public JwtAuthenticationFilter(
+      @Value("${app.auth.jwks-uri}") String jwksUri,
+      @Value("${app.auth.issuer}") String issuer,
+      @Value("${app.auth.token-cache.max-size:10000}") long maxSize,
+      @Value("${app.auth.identity-secret:}") String identitySecret) {
+    this.identityKey = identitySecret.isBlank()
+        ? null
+        : new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    NimbusReactiveJwtDecoder nimbus = NimbusReactiveJwtDecoder.withJwkSetUri(jwksUri).build();
+    nimbus.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+    this.decoder = nimbus;
+    this.verificados = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfter(new Expiry<String, Identity>() {
+          @Override
+          public long expireAfterCreate(String token, Identity id, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), id.expiresAt()).toNanos());
+          }
+
+          @Override
+          public long expireAfterUpdate(String token, Identity id, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+
+          @Override
+          public long expireAfterRead(String token, Identity id, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .build();
+  }
+
+  @Override
+  public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+    // headers de identidade só podem vir do gateway, nunca do cliente
+    ServerHttpRequest.Builder request = exchange.getRequest().mutate()
+        .headers(h -> {
+          h.remove(USER_ID);
+          h.remove(USER_EMAIL);
+          h.remove(USER_ROLE);
+          h.remove(USER_SIGNATURE);
+        });
+
+    String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    if (authorization == null || !authorization.startsWith(BEARER)) {
+      // sem token (login, rotas públicas, Basic) segue como está; cada serviço decide se exige identidade
+      return chain.filter(exchange.mutate().request(request.build()).build());
+    }
+
+    String token = authorization.substring(BEARER.length()).trim();
+    return verify(token)
+        .flatMap(id -> chain.filter(exchange.mutate()
+            .request(request.headers(h -> {
+              h.set(USER_ID, id.userId());
+              h.set(USER_EMAIL, id.email());
+              h.set(USER_ROLE, id.role());
+              if (identityKey != null) {
+                h.set(USER_SIGNATURE, sign(id, Instant.now().getEpochSecond()));
+              }
+            }).build())
+            .build()))
+        .onErrorResume(JwtException.class, e -> {
+          exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+          exchange.getResponse().getHeaders()
+              .set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+          return exchange.getResponse().setComplete();
+        });
+  }
+
+  private Mono<Identity> verify(String token) {
+    Identity emCache = verificados.getIfPresent(token);
+    if (emCache != null && emCache.expiresAt().isAfter(Instant.now())) {
+      return Mono.just(emCache);
+    }
+    return decoder.decode(token)
+        .map(Identity::of)
+        .doOnNext(id -> verificados.put(token, id));
+  }
+
+  // mesmo formato que o GatewayIdentityFilter do aluno-service confere
+  private String sign(Identity id, long epoch) {
+    String dados = String.join("\n", id.userId(), nullToEmpty(id.email()), nullToEmpty(id.role()),
+        Long.toString(epoch));
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(identityKey);
+      byte[] hmac = mac.doFinal(dados.getBytes(StandardCharsets.UTF_8));
+      return epoch + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(hmac);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 indisponível", e);
+    }
+  }
+
+  private static String nullToEmpty(String valor) {
+    return valor == null ? "" : valor;
+  }
+
+  @Override
+  public int getOrder() {
+    // antes do roteamento e dos demais filtros globais
+    return Ordered.HIGHEST_PRECEDENCE + 10;
+  }
+
+  record Identity(String userId, String email, String role, Instant expiresAt) {
+    static Identity of(Jwt jwt) {
+      return new Identity(
+          jwt.getSubject(),
+          jwt.getClaimAsString("email"),
+          jwt.getClaimAsString("role"),
+          jwt.getExpiresAt());
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package br.com.distrischool.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket por cliente, em memória: {@code - name: LocalRateLimit, args: {replenish-rate: 20, burst-capacity: 40}}.
+ *
+ * O cliente é o usuário autenticado (X-User-Id, preenchido pelo JwtAuthenticationFilter) ou, sem token,
+ * o IP de origem. Cada bucket é um único AtomicLong atualizado por CAS (GCRA: guarda o instante em que o
+ * bucket volta a ficar cheio), sem lock nem store externo; um bucket ocioso sai da memória exatamente
+ * quando estaria cheio de novo, então a remoção não devolve fichas a ninguém. Excedido o limite, 429 com
+ * Retry-After. Cada instância do gateway tem os próprios buckets: o limite efetivo é por réplica.
+ */
+@Component
+public class LocalRateLimitGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<LocalRateLimitGatewayFilterFactory.Config> {
+
+  public static final String REMAINING = "X-RateLimit-Remaining";
+
+  // antes do ResponseCache: quem passou do limite não recebe nem as respostas guardadas
+  static final int ORDER = ResponseCacheGatewayFilterFactory.ORDER - 1;
+
+  private final MeterRegistry meterRegistry;
+
+  public LocalRateLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+    super(Config.class);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public List<String> shortcutFieldOrder() {
+    return List.of("replenishRate", "burstCapacity");
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    if (config.getReplenishRate() <= 0 || config.getBurstCapacity() <= 0) {
+      throw new IllegalArgumentException("LocalRateLimit: replenish-rate e burst-capacity devem ser positivos");
+    }
+    long interval = TimeUnit.SECONDS.toNanos(1) / config.getReplenishRate();
+    long tolerance = interval * config.getBurstCapacity();
+    Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+        .maximumSize(config.getMaxClients())
+        .expireAfter(new Expiry<String, TokenBucket>() {
+          @Override
+          public long expireAfterCreate(String client, TokenBucket bucket, long currentTime) {
+            return bucket.untilFull(currentTime, interval);
+          }
+
+          @Override
+          public long expireAfterUpdate(String client, TokenBucket bucket, long currentTime, long currentDuration) {
+            return bucket.untilFull(currentTime, interval);
+          }
+
+          @Override
+          public long expireAfterRead(String client, TokenBucket bucket, long currentTime, long currentDuration) {
+            return bucket.untilFull(currentTime, interval);
+          }
+        })
+        .build();
+
+    return new OrderedGatewayFilter((exchange, chain) -> {
+      long agora = System.nanoTime();
+      TokenBucket bucket = buckets.get(client(exchange.getRequest(), config), c -> new TokenBucket(agora));
+      long resultado = bucket.tryAcquire(agora, interval, tolerance);
+      if (resultado >= 0) {
+        exchange.getResponse().getHeaders().set(REMAINING, Long.toString(resultado));
+        return chain.filter(exchange);
+      }
+
+      Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+      meterRegistry.counter("gateway.ratelimit.rejected", "route", route.getId()).increment();
+      long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(-resultado + TimeUnit.SECONDS.toNanos(1) - 1));
+      exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+      exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+      exchange.getResponse().getHeaders().set(REMAINING, "0");
+      return exchange.getResponse().setComplete();
+    }, ORDER);
+  }
+
+  // X-User-Id só chega aqui se veio de um token verificado; o do cliente é removido antes
+  private static String client(ServerHttpRequest request, Config config) {
+    if (config.getKey() == KeyType.USER) {
+      String userId = request.getHeaders().getFirst(JwtAuthenticationFilter.USER_ID);
+      if (userId != null && !userId.isBlank()) {
+        return "user:" + userId;
+      }
+    }
+    // com server.forward-headers-strategy, já é o IP informado pelo proxy/ingress
+    InetSocketAddress remote = request.getRemoteAddress();
+    return "ip:" + (remote == null || remote.getAddress() == null ? "desconhecido" : remote.getAddress().getHostAddress());
+  }
+
+  /**
+   * Estado do bucket num único long: o instante (nanoTime) teórico da próxima requisição sem espera.
+   * Cada requisição aceita o empurra em um intervalo; passa se isso não o levar além de burst-capacity
+   * intervalos à frente do relógio.
+   */
+  static class TokenBucket {
+
+    private final AtomicLong tat;
+
+    TokenBucket(long agora) {
+      this.tat = new AtomicLong(agora);
+    }
+
+    /**
+     * @return fichas restantes se aceita; senão, menos os nanos até a próxima ficha
+     */
+    long tryAcquire(long agora, long interval, long tolerance) {
+      while (true) {
+        long atual = tat.get();
+        long novo = Math.max(atual, agora) + interval;
+        long adiante = novo - agora;
+        if (adiante > tolerance) {
+          return -(adiante - tolerance);
+        }
+        if (tat.compareAndSet(atual, novo)) {
+          return (tolerance - adiante) / interval;
+        }
+      }
+    }
+
+    long untilFull(long agora, long interval) {
+      return Math.max(0, tat.get() - agora) + interval;
+    }
+  }
+
+  public enum KeyType {
+    // usuário autenticado e, sem token, IP
+    USER,
+    IP
+  }
+
+  public static class Config {
+    private int replenishRate = 20;
+    private int burstCapacity = 40;
+    private KeyType key = KeyType.USER;
+    private long maxClients = 100_000;
+
+    public int getReplenishRate() {
+      return replenishRate;
+    }
+
+    public void setReplenishRate(int replenishRate) {
+      this.replenishRate = replenishRate;
+    }
+
+    public int getBurstCapacity() {
+      return burstCapacity;
+    }
+
+    public void setBurstCapacity(int burstCapacity) {
+      this.burstCapacity = burstCapacity;
+    }
+
+    public KeyType getKey() {
+      return key;
+    }
+
+    public void setKey(KeyType key) {
+      this.key = key;
+    }
+
+    public long getMaxClients() {
+      return maxClients;
+    }
+
+    public void setMaxClients(long maxClients) {
+      this.maxClients = maxClients;
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package br.com.distrischool.gateway;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Circuit breaker e bulkhead de uma rota: {@code - name: Resilience, args: {max-concurrent: 64, wait-in-open: 15s}}.
+ *
+ * O bulkhead limita as chamadas simultâneas à origem, então um serviço lento prende no máximo
+ * max-concurrent conexões e não as das outras rotas. O breaker conta erros (conexão recusada, o 504 do
+ * response-timeout da rota), os status de failure-statuses e as chamadas mais lentas que slow-call-duration;
+ * aberto, responde 503 na hora e, passado wait-in-open, deixa passar half-open-calls chamadas de teste.
+ * O estado aparece em /actuator/gateway/routes/{id}, no filtro da rota, e nas métricas resilience4j.*.
+ */
+@Component
+public class ResilienceGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<ResilienceGatewayFilterFactory.Config> {
+
+  // depois do NettyWriteResponseFilter: a cadeia termina quando a origem responde, já com o status
+  static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+
+  private final CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.ofDefaults();
+  private final BulkheadRegistry bulkheads = BulkheadRegistry.ofDefaults();
+  private final ObjectMapper objectMapper;
+
+  public ResilienceGatewayFilterFactory(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+    super(Config.class);
+    this.objectMapper = objectMapper;
+    TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+    TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    String routeId = config.getRouteId();
+    CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+        .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+        .slidingWindowSize(config.getSlidingWindowSize())
+        .minimumNumberOfCalls(config.getMinimumCalls())
+        .failureRateThreshold(config.getFailureRateThreshold())
+        .slowCallDurationThreshold(config.getSlowCallDuration())
+        .slowCallRateThreshold(config.getSlowCallRateThreshold())
+        .waitDurationInOpenState(config.getWaitInOpen())
+        .permittedNumberOfCallsInHalfOpenState(config.getHalfOpenCalls())
+        .build();
+    BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+        .maxConcurrentCalls(config.getMaxConcurrent())
+        // reativo: nunca bloqueia esperando vaga
+        .maxWaitDuration(Duration.ZERO)
+        .build();
+
+    // rotas recarregadas (/actuator/gateway/refresh) recomeçam com a configuração nova e o breaker fechado
+    circuitBreakers.remove(routeId);
+    bulkheads.remove(routeId);
+    CircuitBreaker breaker = circuitBreakers.circuitBreaker(routeId, breakerConfig);
+    Bulkhead bulkhead = bulkheads.bulkhead(routeId, bulkheadConfig);
+    return new OrderedGatewayFilter(new Guard(breaker, bulkhead, config), ORDER);
+  }
+
+  private class Guard implements GatewayFilter {
+
+    private final CircuitBreaker breaker;
+    private final Bulkhead bulkhead;
+    private final Config config;
+
+    Guard(CircuitBreaker breaker, Bulkhead bulkhead, Config config) {
+      this.breaker = breaker;
+      this.bulkhead = bulkhead;
+      this.config = config;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+      if (!breaker.tryAcquirePermission()) {
+        return reject(exchange, config.getWaitInOpen(),
+            config.getRouteId() + " indisponível: circuito aberto após falhas seguidas");
+      }
+      if (!bulkhead.tryAcquirePermission()) {
+        breaker.releasePermission();
+        return reject(exchange, Duration.ofSeconds(1),
+            config.getRouteId() + " indisponível: limite de requisições simultâneas atingido");
+      }
+
+      long inicio = breaker.getCurrentTimestamp();
+      return chain.filter(exchange)
+          .doOnSuccess(v -> {
+            long duracao = breaker.getCurrentTimestamp() - inicio;
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (status != null && config.getFailureStatuses().contains(status.value())) {
+              breaker.onError(duracao, breaker.getTimestampUnit(), new ResponseStatusException(status));
+            } else {
+              breaker.onSuccess(duracao, breaker.getTimestampUnit());
+            }
+          })
+          .doOnError(e -> breaker.onError(breaker.getCurrentTimestamp() - inicio, breaker.getTimestampUnit(), e))
+          .doFinally(signal -> {
+            bulkhead.onComplete();
+            if (signal == SignalType.CANCEL) {
+              // cliente desistiu: só conta se já passava do limite de lentidão
+              long duracao = breaker.getCurrentTimestamp() - inicio;
+              if (breaker.getTimestampUnit().toNanos(duracao) >= config.getSlowCallDuration().toNanos()) {
+                breaker.onSuccess(duracao, breaker.getTimestampUnit());
+              } else {
+                breaker.releasePermission();
+              }
+            }
+          });
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Duration retryAfter, String message) {
+      ServerHttpResponse response = exchange.getResponse();
+      response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+      response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+      response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfter.toSeconds())));
+
+      // mesmo formato do erro padrão do gateway
+      Map<String, Object> body = new LinkedHashMap<>();
+      body.put("timestamp", Instant.now().toString());
+      body.put("path", exchange.getRequest().getPath().value());
+      body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+      body.put("error", HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+      body.put("message", message);
+      body.put("requestId", exchange.getRequest().getId());
+      byte[] bytes;
+      try {
+        bytes = objectMapper.writeValueAsBytes(body);
+      } catch (JsonProcessingException e) {
+        return Mono.error(e);
+      }
+      return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(bytes)));
+    }
+
+    // aparece no filtro da rota em /actuator/gateway/routes
+    @Override
+    public String toString() {
+      CircuitBreaker.Metrics metrics = breaker.getMetrics();
+      return String.format("Resilience[state = %s, failureRate = %s, slowCallRate = %s, bufferedCalls = %d,"
+              + " notPermittedCalls = %d, concurrentCalls = %d/%d]",
+          breaker.getState(), rate(metrics.getFailureRate()), rate(metrics.getSlowCallRate()),
+          metrics.getNumberOfBufferedCalls(), metrics.getNumberOfNotPermittedCalls(),
+          bulkhead.getMetrics().getMaxAllowedConcurrentCalls() - bulkhead.getMetrics().getAvailableConcurrentCalls(),
+          bulkhead.getMetrics().getMaxAllowedConcurrentCalls());
+    }
+
+    // -1 enquanto a janela não tem minimum-calls chamadas
+    private static String rate(float rate) {
+      return rate < 0 ? "n/a" : String.format("%.1f%%", rate);
+    }
+  }
+
+  public static class Config implements HasRouteId {
+    private String routeId;
+    private int maxConcurrent = 64;
+    private float failureRateThreshold = 50;
+    private Duration slowCallDuration = Duration.ofSeconds(3);
+    private float slowCallRateThreshold = 80;
+    private int slidingWindowSize = 20;
+    private int minimumCalls = 10;
+    private Duration waitInOpen = Duration.ofSeconds(15);
+    private int halfOpenCalls = 3;
+    private Set<Integer> failureStatuses = Set.of(502, 503, 504);
+
+    @Override
+    public String getRouteId() {
+      return routeId;
+    }
+
+    @Override
+    public void setRouteId(String routeId) {
+      this.routeId = routeId;
+    }
+
+    public int getMaxConcurrent() {
+      return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+      this.maxConcurrent = maxConcurrent;
+    }
+
+    public float getFailureRateThreshold() {
+      return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(float failureRateThreshold) {
+      this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+      return slowCallDuration;
+    }
+
+    public void setSlowCallDuration(Duration slowCallDuration) {
+      this.slowCallDuration = slowCallDuration;
+    }
+
+    public float getSlowCallRateThreshold() {
+      return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+      this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public int getSlidingWindowSize() {
+      return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+      this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+      return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+      this.minimumCalls = minimumCalls;
+    }
+
+    public Duration getWaitInOpen() {
+      return waitInOpen;
+    }
+
+    public void setWaitInOpen(Duration waitInOpen) {
+      this.waitInOpen = waitInOpen;
+    }
+
+    public int getHalfOpenCalls() {
+      return halfOpenCalls;
+    }
+
+    public void setHalfOpenCalls(int halfOpenCalls) {
+      this.halfOpenCalls = halfOpenCalls;
+    }
+
+    public Set<Integer> getFailureStatuses() {
+      return failureStatuses;
+    }
+
+    public void setFailureStatuses(Set<Integer> failureStatuses) {
+      this.failureStatuses = failureStatuses;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+package br.com.distrischool.gateway;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Fila exclusiva desta instância do gateway, ligada ao exchange de eventos dos serviços com as
+ * routing keys de app.response-cache.invalidation.
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCacheConfig {
+
+  public static final String EXCHANGE = "distrischool.events.exchange";
+
+  @Bean
+  public TopicExchange distrischoolExchange() {
+    return new TopicExchange(EXCHANGE, true, false);
+  }
+
+  @Bean
+  public Queue gatewayCacheInvalidationQueue() {
+    return new AnonymousQueue();
+  }
+
+  @Bean
+  public Declarables gatewayCacheInvalidationBindings(
+      Queue gatewayCacheInvalidationQueue, TopicExchange distrischoolExchange, ResponseCacheProperties properties) {
+    List<Declarable> bindings = new ArrayList<>();
+    properties.invalidation().values().stream()
+        .flatMap(List::stream)
+        .distinct()
+        .forEach(routingKey -> bindings.add(
+            BindingBuilder.bind(gatewayCacheInvalidationQueue).to(distrischoolExchange).with(routingKey)));
+    return new Declarables(bindings);
+  }
+}
@@ -0,0 +1,295 @@
+package br.com.distrischool.gateway;
+
+import br.com.distrischool.gateway.ResponseCacheStore.CachedResponse;
+import br.com.distrischool.gateway.ResponseCacheStore.Key;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache das respostas GET de uma rota: {@code - name: ResponseCache, args: {ttl: 30s}}.
+ *
+ * Respeita Cache-Control da requisição (no-store ignora o cache, no-cache força ida à origem) e da
+ * resposta (private e Set-Cookie nunca são guardados; no-store, no-cache e max-age só quando
+ * honorOriginCacheControl, já que o Spring Security dos serviços marca toda resposta como no-store).
+ * As variantes seguem o Vary da origem e a chave inclui a credencial, então um usuário nunca recebe
+ * a resposta guardada para outro. Escritas pela própria rota e os eventos dos serviços limpam a rota.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+    extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+  public static final String CACHE_STATUS = "X-Cache";
+
+  // antes do CoalesceRequests: um acerto no cache não precisa nem esperar outra requisição
+  static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+  // definidos pelo próprio gateway a cada requisição ou específicos da conexão
+  private static final Set<String> NOT_STORED = Set.of(
+      "connection", "keep-alive", "transfer-encoding", "content-length", "date", "age",
+      "proxy-authenticate", "trailer", "upgrade", CACHE_STATUS.toLowerCase(Locale.ROOT),
+      // saldo do cliente que fez a requisição original, não de quem recebe a cópia
+      LocalRateLimitGatewayFilterFactory.REMAINING.toLowerCase(Locale.ROOT));
+
+  private final ResponseCacheStore store;
+  private final long maxEntrySize;
+
+  public ResponseCacheGatewayFilterFactory(ResponseCacheStore store, ResponseCacheProperties properties) {
+    super(Config.class);
+    this.store = store;
+    this.maxEntrySize = properties.maxEntrySize().toBytes();
+  }
+
+  @Override
+  public List<String> shortcutFieldOrder() {
+    return List.of("ttl");
+  }
+
+  @Override
+  public GatewayFilter apply(Config config) {
+    // antes do NettyWriteResponseFilter, senão ele escreve na resposta original e o corpo não passa por aqui
+    return new OrderedGatewayFilter((exchange, chain) -> {
+      Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+      String routeId = route.getId();
+      HttpMethod method = exchange.getRequest().getMethod();
+
+      if (!HttpMethod.GET.equals(method)) {
+        if (HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method)) {
+          return chain.filter(exchange);
+        }
+        // escrita pela própria rota: limpa já, sem esperar o evento
+        return chain.filter(exchange).doOnSuccess(v -> {
+          HttpStatusCode status = exchange.getResponse().getStatusCode();
+          if (status == null || status.is2xxSuccessful()) {
+            store.invalidateRoute(routeId);
+          }
+        });
+      }
+
+      HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+      Map<String, String> requestCacheControl = directives(requestHeaders.get(HttpHeaders.CACHE_CONTROL));
+      if (requestCacheControl.containsKey("no-store")) {
+        return chain.filter(exchange);
+      }
+      Key key = new Key(routeId, exchange.getRequest().getURI().getRawPath()
+          + (exchange.getRequest().getURI().getRawQuery() == null ? "" : "?" + exchange.getRequest().getURI().getRawQuery()),
+          credential(requestHeaders.getFirst(HttpHeaders.AUTHORIZATION)));
+
+      boolean revalidate = requestCacheControl.containsKey("no-cache")
+          || "no-cache".equalsIgnoreCase(requestHeaders.getFirst(HttpHeaders.PRAGMA));
+      if (!revalidate) {
+        CachedResponse cached = store.get(key, requestHeaders);
+        if (cached != null) {
+          return writeCached(exchange.getResponse(), cached);
+        }
+      }
+
+      long generation = store.generation(routeId);
+      exchange.getResponse().getHeaders().set(CACHE_STATUS, "MISS");
+      return chain.filter(exchange.mutate()
+          .response(new RecordingResponse(exchange, key, generation, config))
+          .build());
+    }, ORDER);
+  }
+
+  private static Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached) {
+    response.setStatusCode(cached.status());
+    HttpHeaders headers = response.getHeaders();
+    headers.putAll(cached.headers());
+    headers.setContentLength(cached.body().length);
+    headers.set(HttpHeaders.AGE, Long.toString(Duration.between(cached.storedAt(), Instant.now()).toSeconds()));
+    headers.set(CACHE_STATUS, "HIT");
+    return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+  }
+
+  // Hash da credencial: separa as respostas por usuário sem manter o token em memória
+  static String credential(String authorization) {
+    if (authorization == null || authorization.isBlank()) {
+      return "";
+    }
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Headers da origem que podem ser repetidos em outra resposta
+  static HttpHeaders storableHeaders(HttpHeaders headers) {
+    HttpHeaders guardados = new HttpHeaders();
+    headers.forEach((nome, valores) -> {
+      String minusculo = nome.toLowerCase(Locale.ROOT);
+      // CORS é recalculado pelo gateway para a origem de cada requisição
+      if (!NOT_STORED.contains(minusculo) && !minusculo.startsWith("access-control-")) {
+        guardados.put(nome, List.copyOf(valores));
+      }
+    });
+    return HttpHeaders.readOnlyHttpHeaders(guardados);
+  }
+
+  static Map<String, String> directives(List<String> cacheControl) {
+    Map<String, String> directives = new LinkedHashMap<>();
+    if (cacheControl == null) {
+      return directives;
+    }
+    for (String header : cacheControl) {
+      for (String directive : header.split(",")) {
+        String[] partes = directive.trim().split("=", 2);
+        if (!partes[0].isEmpty()) {
+          directives.put(partes[0].toLowerCase(Locale.ROOT),
+              partes.length > 1 ? partes[1].trim().replace("\"", "") : "");
+        }
+      }
+    }
+    return directives;
+  }
+
+  /**
+   * Repassa o corpo ao cliente sem bufferizar e guarda uma cópia; desiste da cópia ao passar de maxEntrySize.
+   * Respostas em streaming (writeAndFlushWith, p.ex. NDJSON) não passam por aqui e nunca são guardadas.
+   */
+  private class RecordingResponse extends ServerHttpResponseDecorator {
+
+    private final HttpHeaders requestHeaders;
+    private final Key key;
+    private final long generation;
+    private final Config config;
+    private final ByteArrayOutputStream copia = new ByteArrayOutputStream();
+    private boolean grandeDemais;
+
+    RecordingResponse(ServerWebExchange exchange, Key key, long generation, Config config) {
+      super(exchange.getResponse());
+      this.requestHeaders = exchange.getRequest().getHeaders();
+      this.key = key;
+      this.generation = generation;
+      this.config = config;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+      return super.writeWith(Flux.from(body).doOnNext(this::record))
+          .doOnSuccess(v -> store());
+    }
+
+    private void record(DataBuffer buffer) {
+      if (grandeDemais) {
+        return;
+      }
+      if (copia.size() + buffer.readableByteCount() > maxEntrySize) {
+        grandeDemais = true;
+        copia.reset();
+        return;
+      }
+      try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+        while (it.hasNext()) {
+          ByteBuffer bb = it.next();
+          byte[] bytes = new byte[bb.remaining()];
+          bb.get(bytes);
+          copia.write(bytes, 0, bytes.length);
+        }
+      }
+    }
+
+    private void store() {
+      if (grandeDemais || getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+        return;
+      }
+      HttpHeaders headers = getHeaders();
+      if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+        return;
+      }
+      Map<String, String> cacheControl = directives(headers.get(HttpHeaders.CACHE_CONTROL));
+      if (cacheControl.containsKey("private")) {
+        return;
+      }
+      Duration ttl = config.getTtl();
+      if (config.isHonorOriginCacheControl()) {
+        if (cacheControl.containsKey("no-store") || cacheControl.containsKey("no-cache")) {
+          return;
+        }
+        String maxAge = cacheControl.getOrDefault("s-maxage", cacheControl.get("max-age"));
+        if (maxAge != null) {
+          Duration origem;
+          try {
+            origem = Duration.ofSeconds(Long.parseLong(maxAge));
+          } catch (NumberFormatException e) {
+            return;
+          }
+          if (origem.compareTo(ttl) < 0) {
+            ttl = origem;
+          }
+        }
+      }
+      if (ttl.isZero() || ttl.isNegative()) {
+        return;
+      }
+
+      Map<String, String> vary = new LinkedHashMap<>();
+      for (String valor : headers.getOrEmpty(HttpHeaders.VARY)) {
+        for (String nome : valor.split(",")) {
+          String header = nome.trim();
+          if ("*".equals(header)) {
+            return;
+          }
+          if (!header.isEmpty()) {
+            vary.put(header, CachedResponse.joined(requestHeaders, header));
+          }
+        }
+      }
+
+      Instant agora = Instant.now();
+      store.put(key, generation, new CachedResponse(getStatusCode(), storableHeaders(headers),
+          copia.toByteArray(), Map.copyOf(vary), agora, agora.plus(ttl)));
+    }
+  }
+
+  public static class Config {
+    private Duration ttl = Duration.ofSeconds(30);
+    private boolean honorOriginCacheControl = true;
+
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+      this.ttl = ttl;
+    }
+
+    public boolean isHonorOriginCacheControl() {
+      return honorOriginCacheControl;
+    }
+
+    public void setHonorOriginCacheControl(boolean honorOriginCacheControl) {
+      this.honorOriginCacheControl = honorOriginCacheControl;
+    }
+  }
+}
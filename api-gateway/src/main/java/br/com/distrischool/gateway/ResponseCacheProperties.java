@@ -0,0 +1,25 @@
+package br.com.distrischool.gateway;
+
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache de respostas do gateway (app.response-cache).
+ *
+ * @param maxSize      limite do store inteiro, somando os corpos guardados
+ * @param maxEntrySize respostas maiores que isso não são guardadas
+ * @param invalidation id da rota -> routing keys (padrões de tópico) cujos eventos limpam a rota
+ */
+@ConfigurationProperties("app.response-cache")
+public record ResponseCacheProperties(
+    @DefaultValue("64MB") DataSize maxSize,
+    @DefaultValue("1MB") DataSize maxEntrySize,
+    Map<String, List<String>> invalidation) {
+
+  public ResponseCacheProperties {
+    invalidation = invalidation == null ? Map.of() : Map.copyOf(invalidation);
+  }
+}
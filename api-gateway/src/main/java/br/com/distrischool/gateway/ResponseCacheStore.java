@@ -0,0 +1,182 @@
+package br.com.distrischool.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store das respostas guardadas pelo filtro ResponseCache, limitado pelo tamanho total dos corpos.
+ *
+ * Cada chave (rota, URI, credencial) guarda as variantes da resposta segundo o Vary da origem.
+ * Um evento de alteração publicado pelos serviços limpa todas as entradas da rota correspondente:
+ * listagens e buscas dependem de qualquer registro, então a invalidação por id não bastaria.
+ */
+@Component
+public class ResponseCacheStore {
+
+  private static final Logger log = LoggerFactory.getLogger(ResponseCacheStore.class);
+
+  // variantes por chave (Accept, Origin...); mais que isso indica Vary de alta cardinalidade
+  private static final int MAX_VARIANTS = 8;
+
+  private final Cache<Key, List<CachedResponse>> entries;
+  private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+  private final Map<String, List<Pattern>> invalidation;
+
+  public ResponseCacheStore(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+    this.entries = Caffeine.newBuilder()
+        .maximumWeight(properties.maxSize().toBytes())
+        .weigher((Key key, List<CachedResponse> variants) ->
+            variants.stream().mapToInt(v -> v.body().length + 512).sum())
+        .expireAfter(new Expiry<Key, List<CachedResponse>>() {
+          @Override
+          public long expireAfterCreate(Key key, List<CachedResponse> variants, long currentTime) {
+            return untilLastExpiry(variants);
+          }
+
+          @Override
+          public long expireAfterUpdate(Key key, List<CachedResponse> variants, long currentTime, long currentDuration) {
+            return untilLastExpiry(variants);
+          }
+
+          @Override
+          public long expireAfterRead(Key key, List<CachedResponse> variants, long currentTime, long currentDuration) {
+            return currentDuration;
+          }
+        })
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway.response-cache");
+
+    Map<String, List<Pattern>> padroes = new ConcurrentHashMap<>();
+    properties.invalidation().forEach((routeId, keys) ->
+        padroes.put(routeId, keys.stream().map(ResponseCacheStore::topicPattern).toList()));
+    this.invalidation = padroes;
+  }
+
+  CachedResponse get(Key key, HttpHeaders requestHeaders) {
+    List<CachedResponse> variants = entries.getIfPresent(key);
+    if (variants == null) {
+      return null;
+    }
+    Instant agora = Instant.now();
+    for (CachedResponse variant : variants) {
+      if (variant.expiresAt().isAfter(agora) && variant.matches(requestHeaders)) {
+        return variant;
+      }
+    }
+    return null;
+  }
+
+  // Lida antes de chamar o serviço; put descarta a resposta se a rota foi invalidada nesse meio-tempo
+  long generation(String routeId) {
+    return generations.computeIfAbsent(routeId, id -> new AtomicLong()).get();
+  }
+
+  void put(Key key, long generation, CachedResponse response) {
+    if (generation(key.routeId()) != generation) {
+      return;
+    }
+    entries.asMap().compute(key, (k, atuais) -> {
+      List<CachedResponse> variants = new ArrayList<>(MAX_VARIANTS);
+      variants.add(response);
+      if (atuais != null) {
+        Instant agora = Instant.now();
+        for (CachedResponse v : atuais) {
+          if (variants.size() < MAX_VARIANTS && v.expiresAt().isAfter(agora) && !v.vary().equals(response.vary())) {
+            variants.add(v);
+          }
+        }
+      }
+      return List.copyOf(variants);
+    });
+    // invalidação concorrente entre a checagem acima e o compute
+    if (generation(key.routeId()) != generation) {
+      entries.invalidate(key);
+    }
+  }
+
+  public void invalidateRoute(String routeId) {
+    generations.computeIfAbsent(routeId, id -> new AtomicLong()).incrementAndGet();
+    entries.asMap().keySet().removeIf(key -> key.routeId().equals(routeId));
+  }
+
+  @RabbitListener(queues = "#{gatewayCacheInvalidationQueue.name}")
+  public void onEvent(Message message) {
+    String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+    invalidation.forEach((routeId, padroes) -> {
+      if (padroes.stream().anyMatch(p -> p.matcher(routingKey).matches())) {
+        log.debug("Evento {} invalidou o cache da rota {}", routingKey, routeId);
+        invalidateRoute(routeId);
+      }
+    });
+  }
+
+  // Mesma semântica dos bindings de tópico do RabbitMQ: * é uma palavra, # é zero ou mais
+  static Pattern topicPattern(String topic) {
+    StringBuilder regex = new StringBuilder();
+    String[] palavras = topic.split("\\.");
+    for (int i = 0; i < palavras.length; i++) {
+      String palavra = palavras[i];
+      if ("#".equals(palavra)) {
+        regex.append(i == 0 ? "(?:[^.]+(?:\\.[^.]+)*)?" : "(?:\\.[^.]+)*");
+        continue;
+      }
+      if (i > 0) {
+        regex.append("\\.");
+      }
+      regex.append("*".equals(palavra) ? "[^.]+" : Pattern.quote(palavra));
+    }
+    return Pattern.compile(regex.toString());
+  }
+
+  private static long untilLastExpiry(List<CachedResponse> variants) {
+    Instant ultima = variants.stream().map(CachedResponse::expiresAt).max(Instant::compareTo).orElse(Instant.now());
+    return Math.max(0, Duration.between(Instant.now(), ultima).toNanos());
+  }
+
+  record Key(String routeId, String uri, String credential) {}
+
+  /**
+   * @param vary valores dos headers de requisição listados no Vary da resposta, no momento em que foi guardada
+   */
+  record CachedResponse(
+      HttpStatusCode status,
+      HttpHeaders headers,
+      byte[] body,
+      Map<String, String> vary,
+      Instant storedAt,
+      Instant expiresAt) {
+
+    boolean matches(HttpHeaders requestHeaders) {
+      for (Map.Entry<String, String> header : vary.entrySet()) {
+        if (!header.getValue().equals(joined(requestHeaders, header.getKey()))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    static String joined(HttpHeaders headers, String name) {
+      List<String> valores = headers.get(name);
+      return valores == null ? "" : String.join(",", valores);
+    }
+  }
+}
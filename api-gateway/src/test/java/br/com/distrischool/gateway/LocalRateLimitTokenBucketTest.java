@@ -0,0 +1,71 @@
+package br.com.distrischool.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import br.com.distrischool.gateway.LocalRateLimitGatewayFilterFactory.TokenBucket;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class LocalRateLimitTokenBucketTest {
+
+  // replenish-rate 10/s, burst-capacity 5
+  private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1) / 10;
+  private static final long TOLERANCE = INTERVAL * 5;
+
+  private static final long T0 = 1_000_000_000L;
+
+  @Test
+  void rajadaAteBurstCapacityComRemainingDecrescente() {
+    TokenBucket bucket = new TokenBucket(T0);
+
+    for (long restantes = 4; restantes >= 0; restantes--) {
+      assertThat(bucket.tryAcquire(T0, INTERVAL, TOLERANCE)).isEqualTo(restantes);
+    }
+  }
+
+  @Test
+  void acimaDoBurstRejeitaComEsperaAteAProximaFicha() {
+    TokenBucket bucket = burst();
+
+    assertThat(bucket.tryAcquire(T0, INTERVAL, TOLERANCE)).isEqualTo(-INTERVAL);
+    // rejeição não consome ficha: a espera diminui com o tempo
+    assertThat(bucket.tryAcquire(T0 + INTERVAL / 4, INTERVAL, TOLERANCE)).isEqualTo(-(INTERVAL - INTERVAL / 4));
+  }
+
+  @Test
+  void fichasVoltamNaTaxaDeReposicao() {
+    TokenBucket bucket = burst();
+
+    assertThat(bucket.tryAcquire(T0 + INTERVAL, INTERVAL, TOLERANCE)).isZero();
+    assertThat(bucket.tryAcquire(T0 + INTERVAL, INTERVAL, TOLERANCE)).isNegative();
+    // 3 intervalos depois: 3 fichas, uma consumida agora
+    assertThat(bucket.tryAcquire(T0 + 4 * INTERVAL, INTERVAL, TOLERANCE)).isEqualTo(2);
+  }
+
+  @Test
+  void ociosoNaoAcumulaAlemDoBurst() {
+    TokenBucket bucket = burst();
+
+    long muitoDepois = T0 + TimeUnit.MINUTES.toNanos(5);
+    assertThat(bucket.tryAcquire(muitoDepois, INTERVAL, TOLERANCE)).isEqualTo(4);
+  }
+
+  @Test
+  void untilFullCobreOTempoAteOBucketEncherDeNovo() {
+    TokenBucket bucket = new TokenBucket(T0);
+    assertThat(bucket.untilFull(T0, INTERVAL)).isEqualTo(INTERVAL);
+
+    bucket.tryAcquire(T0, INTERVAL, TOLERANCE);
+    bucket.tryAcquire(T0, INTERVAL, TOLERANCE);
+    assertThat(bucket.untilFull(T0, INTERVAL)).isEqualTo(3 * INTERVAL);
+    assertThat(bucket.untilFull(T0 + 10 * INTERVAL, INTERVAL)).isEqualTo(INTERVAL);
+  }
+
+  private static TokenBucket burst() {
+    TokenBucket bucket = new TokenBucket(T0);
+    for (int i = 0; i < 5; i++) {
+      bucket.tryAcquire(T0, INTERVAL, TOLERANCE);
+    }
+    return bucket;
+  }
+}
@@ -0,0 +1,19 @@
+#!/usr/bin/env sh
+# Vazão de escritas autenticadas (HTTP Basic) contra o aluno-service.
+# Rode duas vezes: com aluno.security.auth-cache.enabled=true e =false
+# (ex.: ALUNO_SECURITY_AUTH_CACHE_ENABLED=false) e compare "Requests/sec".
+# Requer o hey (https://github.com/rakyll/hey) e um aluno existente com o ID informado.
+#
+# Uso: benchmark/escrita_autenticada.sh [url-base] [id-aluno]
+set -eu
+
+BASE_URL="${1:-http://localhost:8081}"
+ALUNO_ID="${2:-1}"
+
+BODY='{"nome":"Aluno Benchmark","matricula":"2025999999","dataNascimento":"01-01-2010","turma":"BENCH","contato":"(11) 90000-0000","endereco":{"rua":"Rua A","numero":"1","cep":"01000000","cidade":"São Paulo","estado":"SP"}}'
+
+hey -z 30s -c 32 -m PUT \
+    -a user:user123 \
+    -T application/json \
+    -d "$BODY" \
+    "$BASE_URL/alunos/$ALUNO_ID"
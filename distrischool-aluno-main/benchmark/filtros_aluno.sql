@@ -0,0 +1,53 @@
+-- Benchmark dos filtros combinados de GET /alunos
+-- Uso: psql -d distrischool_db -v ON_ERROR_STOP=1 -f benchmark/filtros_aluno.sql
+-- Requer o schema aluno_schema já migrado (V1..V3). Os dados são inseridos numa transação
+-- e descartados no ROLLBACK final.
+
+SET search_path = aluno_schema, public;
+\timing on
+
+BEGIN;
+
+-- 1 milhão de alunos sintéticos
+INSERT INTO aluno (nome, matricula, turma, contato, data_nascimento,
+                   endereco_rua, endereco_numero, endereco_cep, endereco_cidade, endereco_estado)
+SELECT (ARRAY['João', 'Maria', 'José', 'Ana', 'Antônio', 'Francisca', 'Conceição', 'Sebastião'])[1 + i % 8]
+           || ' ' || (ARRAY['Silva', 'Santos', 'Oliveira', 'Souza', 'Lima', 'Pereira', 'Ferreira', 'Araújo'])[1 + (i / 8) % 8]
+           || ' ' || i,
+       (2015 + i % 11)::text || lpad((i % 1000000)::text, 6, '0'),
+       'T' || (i % 300),
+       '(11) 90000-' || lpad((i % 10000)::text, 4, '0'),
+       DATE '2005-01-01' + (i % 5000),
+       'Rua ' || (i % 1000), (i % 500)::text, lpad((i % 99999)::text, 8, '0'),
+       (ARRAY['São Paulo', 'Recife', 'Fortaleza', 'Belém', 'Goiânia', 'Maceió'])[1 + i % 6],
+       (ARRAY['SP', 'PE', 'CE', 'PA', 'GO', 'AL'])[1 + i % 6]
+FROM generate_series(1, 1000000) AS i;
+
+ANALYZE aluno;
+
+-- nome + turma (antes: só o nome era aplicado)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM aluno
+WHERE normalizar_nome(nome) LIKE '%' || normalizar_nome('conceicao') || '%'
+  AND lower(turma) = 't42' AND id > 0
+ORDER BY id LIMIT 51;
+
+-- estado + cidade com cursor
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM aluno
+WHERE upper(endereco_estado) = 'PE' AND lower(endereco_cidade) = 'recife' AND id > 500000
+ORDER BY id LIMIT 51;
+
+-- faixa de nascimento
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM aluno
+WHERE data_nascimento BETWEEN DATE '2010-01-01' AND DATE '2010-01-31' AND id > 0
+ORDER BY id LIMIT 51;
+
+-- prefixo de matrícula + turma
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM aluno
+WHERE matricula LIKE '2024%' AND lower(turma) = 't7' AND id > 0
+ORDER BY id LIMIT 51;
+
+ROLLBACK;
@@ -0,0 +1,32 @@
+package com.example.DistriSchool.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ALUNOS_POR_ID = "alunosPorId";
+    public static final String ALUNOS_POR_MATRICULA = "alunosPorMatricula";
+    public static final String INVALIDATION_ROUTING_KEY = "aluno.cache.invalidate";
+
+    // Fila exclusiva de cada réplica: toda instância recebe todas as invalidações
+    @Bean
+    public Queue alunoCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding alunoCacheInvalidationBinding(Queue alunoCacheInvalidationQueue, Exchange distrischoolExchange) {
+        return BindingBuilder.bind(alunoCacheInvalidationQueue)
+                .to(distrischoolExchange)
+                .with(INVALIDATION_ROUTING_KEY)
+                .noargs();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.DistriSchool.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Evita repetir a verificação BCrypt a cada requisição HTTP Basic.
+ * Credenciais já verificadas ficam num cache curto, indexado por um HMAC com chave aleatória
+ * da instância (a senha em texto nunca é guardada). Num acerto, o usuário é recarregado do
+ * {@link UserDetailsService} e o hash armazenado é comparado com o da verificação original:
+ * se a senha mudou ou a conta foi bloqueada, a entrada é descartada e o BCrypt volta a rodar.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, String> hashPorCredencial;
+    private final SecretKeySpec chave;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, UserDetailsService userDetailsService,
+                                         Duration ttl, long tamanhoMaximo) {
+        this.delegate = delegate;
+        this.userDetailsService = userDetailsService;
+        this.hashPorCredencial = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(tamanhoMaximo)
+                .build();
+        byte[] segredo = new byte[32];
+        new SecureRandom().nextBytes(segredo);
+        this.chave = new SecretKeySpec(segredo, "HmacSHA256");
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        String credencial = hmac(username, authentication.getCredentials().toString());
+
+        String hashVerificado = hashPorCredencial.getIfPresent(credencial);
+        if (hashVerificado != null) {
+            UserDetails atual = loadIfUnchanged(username, hashVerificado);
+            if (atual != null) {
+                return UsernamePasswordAuthenticationToken.authenticated(atual, null, atual.getAuthorities());
+            }
+            hashPorCredencial.invalidate(credencial);
+        }
+
+        Authentication resultado = delegate.authenticate(authentication);
+        if (resultado != null && resultado.getPrincipal() instanceof UserDetails principal && principal.getPassword() != null) {
+            hashPorCredencial.put(credencial, principal.getPassword());
+        }
+        return resultado;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    private UserDetails loadIfUnchanged(String username, String hashVerificado) {
+        UserDetails atual;
+        try {
+            atual = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        boolean contaValida = atual.isEnabled() && atual.isAccountNonLocked()
+                && atual.isAccountNonExpired() && atual.isCredentialsNonExpired();
+        return contaValida && hashVerificado.equals(atual.getPassword()) ? atual : null;
+    }
+
+    private String hmac(String username, String senha) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(chave);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(senha.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.DistriSchool.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Autentica a requisição pela identidade que o api-gateway repassa (X-User-Id, X-User-Role) depois de
+ * verificar o token Bearer emitido pelo user-service. O serviço também é alcançável sem o gateway
+ * (porta publicada no docker-compose, ClusterIP no k8s), então os headers só valem acompanhados de
+ * X-User-Signature: {@code <epoch>.<HMAC-SHA256>} de id, e-mail, papel e epoch com o segredo
+ * compartilhado com o gateway (aluno.security.gateway-headers.secret / app.auth.identity-secret).
+ * Assinatura ausente, inválida ou fora da janela de validade responde 401; sem os headers,
+ * a requisição segue para o HTTP Basic como antes.
+ */
+public class GatewayIdentityFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID = "X-User-Id";
+    public static final String USER_EMAIL = "X-User-Email";
+    public static final String USER_ROLE = "X-User-Role";
+    public static final String USER_SIGNATURE = "X-User-Signature";
+
+    // segredos curtos demais tornam o HMAC adivinhável
+    static final int TAMANHO_MINIMO_SEGREDO = 32;
+
+    private final SecretKeySpec chave;
+    private final Duration validade;
+    private final Clock clock;
+    private final WebAuthenticationDetailsSource detailsSource = new WebAuthenticationDetailsSource();
+
+    public GatewayIdentityFilter(String segredo, Duration validade) {
+        this(segredo, validade, Clock.systemUTC());
+    }
+
+    GatewayIdentityFilter(String segredo, Duration validade, Clock clock) {
+        if (segredo == null || segredo.getBytes(StandardCharsets.UTF_8).length < TAMANHO_MINIMO_SEGREDO) {
+            throw new IllegalStateException("aluno.security.gateway-headers.secret precisa de pelo menos "
+                    + TAMANHO_MINIMO_SEGREDO + " bytes quando os headers do gateway estão habilitados");
+        }
+        this.chave = new SecretKeySpec(segredo.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.validade = validade;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_ID);
+        if (userId == null || userId.isBlank()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String role = request.getHeader(USER_ROLE);
+        if (!assinaturaValida(userId, request.getHeader(USER_EMAIL), role, request.getHeader(USER_SIGNATURE))) {
+            // headers de identidade sem a prova do gateway: chamada direta ao serviço, nunca cai no Basic
+            SecurityContextHolder.clearContext();
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Identidade do gateway sem assinatura válida");
+            return;
+        }
+        Authentication atual = SecurityContextHolder.getContext().getAuthentication();
+        if (atual == null || !atual.isAuthenticated()) {
+            PreAuthenticatedAuthenticationToken token = new PreAuthenticatedAuthenticationToken(
+                    userId, null, authorities(role));
+            token.setDetails(detailsSource.buildDetails(request));
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(token);
+            SecurityContextHolder.setContext(context);
+        }
+        chain.doFilter(request, response);
+    }
+
+    // mesmo formato que o JwtAuthenticationFilter do api-gateway gera
+    private boolean assinaturaValida(String userId, String email, String role, String assinatura) {
+        if (assinatura == null) {
+            return false;
+        }
+        int ponto = assinatura.indexOf('.');
+        if (ponto < 1) {
+            return false;
+        }
+        long epoch;
+        byte[] recebido;
+        try {
+            epoch = Long.parseLong(assinatura.substring(0, ponto));
+            recebido = Base64.getUrlDecoder().decode(assinatura.substring(ponto + 1));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // limita o reaproveitamento de headers capturados
+        if (Math.abs(clock.instant().getEpochSecond() - epoch) > validade.toSeconds()) {
+            return false;
+        }
+        String dados = String.join("\n", userId, nullToEmpty(email), nullToEmpty(role), Long.toString(epoch));
+        return MessageDigest.isEqual(hmac(dados), recebido);
+    }
+
+    private byte[] hmac(String dados) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(chave);
+            return mac.doFinal(dados.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+
+    private static String nullToEmpty(String valor) {
+        return valor == null ? "" : valor;
+    }
+
+    // ADMIN do user-service vira ROLE_ADMIN; os demais papéis (TEACHER, STUDENT, PARENT) valem como ROLE_USER
+    static List<SimpleGrantedAuthority> authorities(String role) {
+        if (role != null && "ADMIN".equals(role.trim().toUpperCase(Locale.ROOT))) {
+            return List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"));
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_USER"));
+    }
+}
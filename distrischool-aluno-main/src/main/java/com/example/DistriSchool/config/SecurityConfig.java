@@ -1,8 +1,11 @@
 package com.example.DistriSchool.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -12,6 +15,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -39,11 +45,38 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public AuthenticationProvider authenticationProvider(
+            UserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder,
+            @Value("${aluno.security.auth-cache.enabled:true}") boolean cacheHabilitado,
+            @Value("${aluno.security.auth-cache.ttl-segundos:300}") long ttlSegundos,
+            @Value("${aluno.security.auth-cache.tamanho-maximo:10000}") long tamanhoMaximo) {
+        DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider(userDetailsService);
+        daoProvider.setPasswordEncoder(passwordEncoder);
+        if (!cacheHabilitado) {
+            return daoProvider;
+        }
+        return new CachingAuthenticationProvider(daoProvider, userDetailsService,
+                Duration.ofSeconds(ttlSegundos), tamanhoMaximo);
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(
+            HttpSecurity http,
+            @Value("${aluno.security.gateway-headers.enabled:false}") boolean headersDoGateway,
+            @Value("${aluno.security.gateway-headers.secret:}") String segredoDoGateway,
+            @Value("${aluno.security.gateway-headers.validade-segundos:60}") long validadeSegundos) throws Exception {
+        if (headersDoGateway) {
+            // token Bearer já verificado pelo gateway, identidade assinada com o segredo compartilhado;
+            // sem os headers, cai no HTTP Basic
+            http.addFilterBefore(new GatewayIdentityFilter(segredoDoGateway, Duration.ofSeconds(validadeSegundos)),
+                    BasicAuthenticationFilter.class);
+        }
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(HttpMethod.DELETE, "/alunos/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/alunos/remocao").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/alunos/**").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/alunos/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/alunos/**").permitAll()
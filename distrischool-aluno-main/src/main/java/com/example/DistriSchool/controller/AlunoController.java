@@ -2,13 +2,25 @@ package com.example.DistriSchool.controller;
 
 import com.example.DistriSchool.domain.Aluno;
 import com.example.DistriSchool.dto.FiltroAlunoDTO;
+import com.example.DistriSchool.dto.LoteAlunosDTO;
+import com.example.DistriSchool.dto.PaginaAlunoDTO;
+import com.example.DistriSchool.dto.RemocaoAlunosDTO;
+import com.example.DistriSchool.dto.ResultadoImportacaoDTO;
+import com.example.DistriSchool.dto.ResultadoRemocaoDTO;
+import com.example.DistriSchool.service.AlunoImportService;
 import com.example.DistriSchool.service.AlunoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -18,16 +30,64 @@ public class AlunoController {
     @Autowired
     private AlunoService alunoService;
 
+    @Autowired
+    private AlunoImportService alunoImportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Aluno createAluno(@Valid @RequestBody Aluno aluno) {
         return alunoService.save(aluno);
     }
 
-    //Busca múltipla
+    //Importação em massa - CSV com cabeçalho ou NDJSON; responde com os erros por linha
+    @PostMapping(value = "/importacao", consumes = "text/csv")
+    public ResultadoImportacaoDTO importAlunosCsv(InputStream corpo) throws IOException {
+        return alunoImportService.importCsv(corpo);
+    }
+
+    @PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResultadoImportacaoDTO importAlunosNdjson(InputStream corpo) throws IOException {
+        return alunoImportService.importNdjson(corpo);
+    }
+
+    //Busca por ids - GET /alunos?ids=1,2,3 (até 500), na ordem pedida, com os ids inexistentes
+    @GetMapping(params = "ids")
+    public LoteAlunosDTO searchAlunosByIds(@RequestParam List<Long> ids) {
+        return alunoService.getByIds(ids);
+    }
+
+    //Busca múltipla - paginada por cursor (id do último aluno recebido)
     @GetMapping
-    public List<Aluno> searchAlunos(FiltroAlunoDTO filtro) {
-        return alunoService.getByFilter(filtro);
+    public PaginaAlunoDTO searchAlunos(FiltroAlunoDTO filtro,
+                                       @RequestParam(required = false) Long cursor,
+                                       @RequestParam(required = false) Integer size) {
+        return alunoService.getByFilter(filtro, cursor, size);
+    }
+
+    //Busca por nome ignorando acentos, ordenada por similaridade
+    @GetMapping("/busca")
+    public List<Aluno> searchAlunosByNome(@RequestParam("q") String termo,
+                                          @RequestParam(required = false) Integer limit) {
+        return alunoService.searchByNome(termo, limit);
+    }
+
+    //Exportação completa em NDJSON (um aluno por linha), com memória constante
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAlunos() {
+        StreamingResponseBody body = out -> alunoService.streamAll(aluno -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(aluno));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     //Busca única - matrícula
@@ -52,6 +112,12 @@ public class AlunoController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    //Remoção em lote - um único DELETE; responde com os ids removidos e os não encontrados
+    @PostMapping("/remocao")
+    public ResultadoRemocaoDTO deleteAlunos(@Valid @RequestBody RemocaoAlunosDTO remocao) {
+        return alunoService.deleteAll(remocao.getIds());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAluno(@PathVariable Long id) {
         alunoService.delete(id);
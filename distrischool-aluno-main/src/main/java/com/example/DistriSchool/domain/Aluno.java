@@ -19,7 +19,8 @@ import java.time.LocalDate;
 public class Aluno {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aluno_id_seq")
+    @SequenceGenerator(name = "aluno_id_seq", sequenceName = "aluno_id_seq", allocationSize = 50)
     private long id;
 
     @NotNull
@@ -38,11 +39,14 @@ public class Aluno {
     private Endereco endereco;
 
     @NotBlank(message = "O nome é obrigatório.")
+    @Size(max = 255, message = "O nome deve ter no máximo 255 caracteres.")
     private String nome;
 
+    @Size(max = 50, message = "A matrícula deve ter no máximo 50 caracteres.")
     private String matricula;
 
     @NotBlank(message = "A turma é obrigatória.")
+    @Size(max = 50, message = "A turma deve ter no máximo 50 caracteres.")
     private String turma;
 
     @NotBlank(message = "O contato é obrigatório.")
@@ -2,27 +2,34 @@ package com.example.DistriSchool.domain;
 
 import jakarta.persistence.Embeddable;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// tamanhos máximos acompanham as colunas endereco_* da tabela aluno (V1)
 @Embeddable
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Endereco {
     @NotBlank(message = "A rua é obrigatória.")
+    @Size(max = 255, message = "A rua deve ter no máximo 255 caracteres.")
     private String rua;
 
     @NotBlank(message = "O número é obrigatório.")
+    @Size(max = 20, message = "O número deve ter no máximo 20 caracteres.")
     private String numero;
 
     @NotBlank(message = "O CEP é obrigatório.")
+    @Size(max = 20, message = "O CEP deve ter no máximo 20 caracteres.")
     private String cep;
 
     @NotBlank(message = "A cidade é obrigatória.")
+    @Size(max = 255, message = "A cidade deve ter no máximo 255 caracteres.")
     private String cidade;
 
     @NotBlank(message = "O estado é obrigatório.")
+    @Size(max = 2, message = "O estado deve ter no máximo 2 caracteres.")
     private String estado;
 }
@@ -0,0 +1,32 @@
+package com.example.DistriSchool.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Entity
+@Table(name = "aluno_outbox")
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "aluno_outbox_id_seq")
+    @SequenceGenerator(name = "aluno_outbox_id_seq", sequenceName = "aluno_outbox_id_seq", allocationSize = 50)
+    private Long id;
+
+    private String routingKey;
+
+    // classe do payload, enviada no header __TypeId__ como fazia o Jackson2JsonMessageConverter
+    private String tipoPayload;
+
+    private String payload;
+
+    private Instant criadoEm;
+
+    private Instant enviadoEm;
+}
@@ -0,0 +1,13 @@
+package com.example.DistriSchool.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlunoRemovidoDTO {
+    private Long id;
+    private String matricula;
+}
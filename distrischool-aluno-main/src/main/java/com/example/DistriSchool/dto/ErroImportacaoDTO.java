@@ -0,0 +1,13 @@
+package com.example.DistriSchool.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+    private long linha;
+    private List<String> erros;
+}
@@ -1,9 +1,22 @@
 package com.example.DistriSchool.dto;
 
 import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
 
 @Data
 public class FiltroAlunoDTO {
     String nome;
     String turma;
+    String cidade;
+    String estado;
+    // prefixo da matrícula, ex.: 2025 para todos os alunos do ano
+    String matricula;
+
+    @DateTimeFormat(pattern = "dd-MM-yyyy")
+    LocalDate dataNascimentoInicio;
+
+    @DateTimeFormat(pattern = "dd-MM-yyyy")
+    LocalDate dataNascimentoFim;
 }
@@ -0,0 +1,21 @@
+package com.example.DistriSchool.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InvalidacaoCacheAlunoDTO {
+    private Long id;
+    private List<String> matriculas;
+    // remoções em lote: vários ids numa só mensagem
+    private List<Long> ids;
+
+    public InvalidacaoCacheAlunoDTO(Long id, List<String> matriculas) {
+        this(id, matriculas, null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.DistriSchool.dto;
+
+import com.example.DistriSchool.domain.Aluno;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LoteAlunosDTO {
+    // alunos encontrados, na ordem dos ids pedidos
+    private List<Aluno> content;
+    private List<Long> naoEncontrados;
+}
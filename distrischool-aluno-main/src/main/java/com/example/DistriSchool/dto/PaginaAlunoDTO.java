@@ -0,0 +1,15 @@
+package com.example.DistriSchool.dto;
+
+import com.example.DistriSchool.domain.Aluno;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class PaginaAlunoDTO {
+    private List<Aluno> content;
+    // id do último aluno da página; null quando não há mais resultados
+    private Long nextCursor;
+}
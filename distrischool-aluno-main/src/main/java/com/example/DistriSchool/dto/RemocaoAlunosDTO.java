@@ -0,0 +1,19 @@
+package com.example.DistriSchool.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RemocaoAlunosDTO {
+    @NotEmpty(message = "Informe ao menos um id.")
+    @Size(max = 1000, message = "No máximo 1000 ids por requisição.")
+    private List<@NotNull Long> ids;
+}
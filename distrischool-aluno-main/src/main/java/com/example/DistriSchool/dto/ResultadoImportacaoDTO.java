@@ -0,0 +1,14 @@
+package com.example.DistriSchool.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ResultadoImportacaoDTO {
+    private long linhasProcessadas;
+    private long importados;
+    private List<ErroImportacaoDTO> erros;
+}
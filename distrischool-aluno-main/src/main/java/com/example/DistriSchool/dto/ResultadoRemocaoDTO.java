@@ -0,0 +1,14 @@
+package com.example.DistriSchool.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ResultadoRemocaoDTO {
+    private List<Long> removidos;
+    // ids pedidos que não correspondiam a nenhum aluno
+    private List<Long> naoEncontrados;
+}
@@ -1,17 +1,54 @@
 package com.example.DistriSchool.repository;
 
 import com.example.DistriSchool.domain.Aluno;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface AlunoRepository extends JpaRepository<Aluno, Long> {
-    List<Aluno> findByNomeContainingIgnoreCase(String nome);
+public interface AlunoRepository extends JpaRepository<Aluno, Long>, JpaSpecificationExecutor<Aluno> {
     Optional<Aluno> findByMatricula(String matricula);
-    List<Aluno> findByTurmaIgnoreCase(String turma);
 
+    // SELECT ... FOR UPDATE: escritas concorrentes no mesmo aluno gravam seus eventos na ordem dos commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Aluno a where a.id = :id")
+    Optional<Aluno> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("select a.matricula from Aluno a where a.matricula in :matriculas")
+    Set<String> findMatriculasExistentes(@Param("matriculas") Collection<String> matriculas);
+
+    @Query("select a.matricula from Aluno a where a.matricula between :inicio and :fim")
+    Set<String> findMatriculasNoIntervalo(@Param("inicio") String inicio, @Param("fim") String fim);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select a from Aluno a order by a.id")
+    Stream<Aluno> streamAllOrderById();
+
+    // Busca aproximada por nome sem acentos, atendida pelo índice trigram idx_aluno_nome_normalizado_trgm
+    @Query(value = """
+            SELECT a.* FROM {h-schema}aluno a
+            WHERE {h-schema}normalizar_nome(:termo) OPERATOR(public.<%) {h-schema}normalizar_nome(a.nome)
+               OR {h-schema}normalizar_nome(a.nome) LIKE '%' || {h-schema}normalizar_nome(:termo) || '%'
+            ORDER BY public.word_similarity({h-schema}normalizar_nome(:termo), {h-schema}normalizar_nome(a.nome)) DESC, a.id
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<Aluno> searchByNomeSimilar(@Param("termo") String termo, @Param("limite") int limite);
+
+    // Remoção em lote num único comando; cada linha devolvida é {id, matricula} de um aluno removido
+    @Query(value = "DELETE FROM {h-schema}aluno WHERE id = ANY(:ids) RETURNING id, matricula", nativeQuery = true)
+    List<Object[]> deleteAllByIdReturning(@Param("ids") Long[] ids);
 
 }
@@ -0,0 +1,95 @@
+package com.example.DistriSchool.repository;
+
+import com.example.DistriSchool.domain.Aluno;
+import com.example.DistriSchool.dto.FiltroAlunoDTO;
+import jakarta.persistence.criteria.Expression;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critérios de busca de alunos combináveis em uma única consulta SQL.
+ * Cada critério usa a mesma expressão dos índices criados em V2 e V3, para que
+ * filtros combinados sejam resolvidos por índice e não em memória.
+ */
+public final class AlunoSpecifications {
+
+    private AlunoSpecifications() {
+    }
+
+    /**
+     * @param funcaoNormalizar nome qualificado da função normalizar_nome (ex.: aluno_schema.normalizar_nome)
+     */
+    public static Specification<Aluno> porFiltro(FiltroAlunoDTO filtro, String funcaoNormalizar) {
+        List<Specification<Aluno>> criterios = new ArrayList<>();
+        if (temValor(filtro.getNome())) {
+            criterios.add(nomeContem(filtro.getNome(), funcaoNormalizar));
+        }
+        if (temValor(filtro.getTurma())) {
+            criterios.add(turmaIgual(filtro.getTurma()));
+        }
+        if (temValor(filtro.getEstado())) {
+            criterios.add(estadoIgual(filtro.getEstado()));
+        }
+        if (temValor(filtro.getCidade())) {
+            criterios.add(cidadeIgual(filtro.getCidade()));
+        }
+        if (temValor(filtro.getMatricula())) {
+            criterios.add(matriculaComecaCom(filtro.getMatricula()));
+        }
+        if (filtro.getDataNascimentoInicio() != null || filtro.getDataNascimentoFim() != null) {
+            criterios.add(nascidoEntre(filtro.getDataNascimentoInicio(), filtro.getDataNascimentoFim()));
+        }
+        return Specification.allOf(criterios);
+    }
+
+    public static Specification<Aluno> nomeContem(String nome, String funcaoNormalizar) {
+        return (root, query, cb) -> {
+            Expression<String> nomeNormalizado = cb.function(funcaoNormalizar, String.class, root.get("nome"));
+            Expression<String> termo = cb.function(funcaoNormalizar, String.class, cb.literal(escaparLike(nome.trim())));
+            return cb.like(nomeNormalizado, cb.concat(cb.concat("%", termo), "%"), '\\');
+        };
+    }
+
+    public static Specification<Aluno> turmaIgual(String turma) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("turma")), turma.trim().toLowerCase());
+    }
+
+    public static Specification<Aluno> estadoIgual(String estado) {
+        return (root, query, cb) -> cb.equal(cb.upper(root.get("endereco").get("estado")), estado.trim().toUpperCase());
+    }
+
+    public static Specification<Aluno> cidadeIgual(String cidade) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("endereco").get("cidade")), cidade.trim().toLowerCase());
+    }
+
+    public static Specification<Aluno> matriculaComecaCom(String prefixo) {
+        return (root, query, cb) -> cb.like(root.get("matricula"), escaparLike(prefixo.trim()) + "%", '\\');
+    }
+
+    public static Specification<Aluno> nascidoEntre(LocalDate inicio, LocalDate fim) {
+        return (root, query, cb) -> {
+            if (inicio == null) {
+                return cb.lessThanOrEqualTo(root.get("dataNascimento"), fim);
+            }
+            if (fim == null) {
+                return cb.greaterThanOrEqualTo(root.get("dataNascimento"), inicio);
+            }
+            return cb.between(root.get("dataNascimento"), inicio, fim);
+        };
+    }
+
+    public static Specification<Aluno> idMaiorQue(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    private static boolean temValor(String valor) {
+        return valor != null && !valor.isBlank();
+    }
+
+    private static String escaparLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
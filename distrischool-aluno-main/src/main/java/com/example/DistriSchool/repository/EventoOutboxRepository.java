@@ -0,0 +1,32 @@
+package com.example.DistriSchool.repository;
+
+import com.example.DistriSchool.domain.EventoOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // Uma réplica por vez drena a fila (lock liberado no fim da transação); as demais pulam o ciclo
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtext('aluno_outbox_relay'))", nativeQuery = true)
+    boolean tryLockRelay();
+
+    // ordem, não id: o id vem em blocos por réplica e não segue a ordem de gravação
+    @Query(value = """
+            SELECT * FROM {h-schema}aluno_outbox
+            WHERE enviado_em IS NULL
+            ORDER BY ordem
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<EventoOutbox> findPendentes(@Param("limite") int limite);
+
+    @Modifying
+    @Query("delete from EventoOutbox e where e.enviadoEm < :limite")
+    int deleteEnviadosAntesDe(@Param("limite") Instant limite);
+}
@@ -0,0 +1,93 @@
+package com.example.DistriSchool.service;
+
+import com.example.DistriSchool.config.CacheConfig;
+import com.example.DistriSchool.config.RabbitMQConfig;
+import com.example.DistriSchool.dto.AlunoRemovidoDTO;
+import com.example.DistriSchool.dto.InvalidacaoCacheAlunoDTO;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Mantém os caches de aluno coerentes entre réplicas: remove as entradas localmente
+ * e avisa as demais instâncias pelo exchange de eventos.
+ */
+@Component
+public class AlunoCacheInvalidator {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    /**
+     * Dentro de uma transação, a invalidação só acontece após o commit; antes disso uma
+     * leitura concorrente poderia recolocar no cache o estado antigo.
+     */
+    public void invalidate(Long id, String... matriculas) {
+        afterCommit(new InvalidacaoCacheAlunoDTO(id,
+                Arrays.stream(matriculas).filter(Objects::nonNull).distinct().toList()));
+    }
+
+    public void invalidateAll(List<AlunoRemovidoDTO> removidos) {
+        afterCommit(new InvalidacaoCacheAlunoDTO(null,
+                removidos.stream().map(AlunoRemovidoDTO::getMatricula).filter(Objects::nonNull).toList(),
+                removidos.stream().map(AlunoRemovidoDTO::getId).toList()));
+    }
+
+    private void afterCommit(InvalidacaoCacheAlunoDTO invalidacao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(invalidacao);
+                }
+            });
+        } else {
+            broadcast(invalidacao);
+        }
+    }
+
+    private void broadcast(InvalidacaoCacheAlunoDTO invalidacao) {
+        evict(invalidacao);
+
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.EXCHANGE, CacheConfig.INVALIDATION_ROUTING_KEY, invalidacao);
+        } catch (AmqpException e) {
+            // as outras réplicas ficam com a entrada antiga até o TTL expirar
+            System.err.println("Falha ao propagar invalidação de cache do aluno "
+                    + (invalidacao.getIds() != null ? invalidacao.getIds() : invalidacao.getId()) + ": " + e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = "#{alunoCacheInvalidationQueue.name}")
+    public void onInvalidation(InvalidacaoCacheAlunoDTO invalidacao) {
+        evict(invalidacao);
+    }
+
+    private void evict(InvalidacaoCacheAlunoDTO invalidacao) {
+        Cache porId = cacheManager.getCache(CacheConfig.ALUNOS_POR_ID);
+        if (porId != null && invalidacao.getId() != null) {
+            porId.evict(invalidacao.getId());
+        }
+        if (porId != null && invalidacao.getIds() != null) {
+            invalidacao.getIds().forEach(porId::evict);
+        }
+        Cache porMatricula = cacheManager.getCache(CacheConfig.ALUNOS_POR_MATRICULA);
+        List<String> matriculas = invalidacao.getMatriculas();
+        if (porMatricula != null && matriculas != null) {
+            matriculas.forEach(porMatricula::evict);
+        }
+    }
+}
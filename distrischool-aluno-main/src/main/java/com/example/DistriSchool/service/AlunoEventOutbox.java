@@ -0,0 +1,63 @@
+package com.example.DistriSchool.service;
+
+import com.example.DistriSchool.domain.Aluno;
+import com.example.DistriSchool.domain.EventoOutbox;
+import com.example.DistriSchool.dto.AlunoRemovidoDTO;
+import com.example.DistriSchool.repository.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Registra os eventos de aluno na tabela aluno_outbox, dentro da transação que alterou o aluno.
+ * A publicação no RabbitMQ fica a cargo do {@link OutboxRelay}.
+ */
+@Component
+@Transactional(propagation = Propagation.MANDATORY)
+public class AlunoEventOutbox {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void created(Aluno aluno) {
+        eventoOutboxRepository.save(toEvento("aluno.created", aluno));
+    }
+
+    public void createdAll(List<Aluno> alunos) {
+        eventoOutboxRepository.saveAll(alunos.stream().map(aluno -> toEvento("aluno.created", aluno)).toList());
+    }
+
+    public void updated(Aluno aluno) {
+        eventoOutboxRepository.save(toEvento("aluno.updated", aluno));
+    }
+
+    public void deleted(long id, String matricula) {
+        eventoOutboxRepository.save(toEvento("aluno.deleted", new AlunoRemovidoDTO(id, matricula)));
+    }
+
+    public void deletedAll(List<AlunoRemovidoDTO> removidos) {
+        eventoOutboxRepository.saveAll(removidos.stream().map(removido -> toEvento("aluno.deleted", removido)).toList());
+    }
+
+    private EventoOutbox toEvento(String routingKey, Object payload) {
+        EventoOutbox evento = new EventoOutbox();
+        evento.setRoutingKey(routingKey);
+        evento.setTipoPayload(payload.getClass().getName());
+        try {
+            evento.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Não foi possível serializar o evento " + routingKey, e);
+        }
+        evento.setCriadoEm(Instant.now());
+        return evento;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.DistriSchool.service;
+
+import com.example.DistriSchool.domain.Aluno;
+import com.example.DistriSchool.domain.Endereco;
+import com.example.DistriSchool.dto.ErroImportacaoDTO;
+import com.example.DistriSchool.dto.ResultadoImportacaoDTO;
+import com.example.DistriSchool.repository.AlunoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Size;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em massa de alunos a partir de CSV ou NDJSON.
+ * O corpo é lido linha a linha; as linhas válidas são gravadas em lotes JDBC
+ * junto com os eventos aluno.created de cada lote na outbox. Se o banco recusar o lote,
+ * ele é regravado linha a linha para que só as linhas problemáticas apareçam nos erros.
+ */
+@Service
+public class AlunoImportService {
+
+    private static final int TAMANHO_LOTE = 500;
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private MatriculaGenerator matriculaGenerator;
+
+    @Autowired
+    private AlunoEventOutbox alunoEventOutbox;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AlunoImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * CSV com cabeçalho. Colunas reconhecidas: nome, dataNascimento (dd-MM-yyyy), turma, contato,
+     * matricula (opcional), rua, numero, cep, cidade, estado. Campos não podem conter quebra de linha.
+     */
+    public ResultadoImportacaoDTO importCsv(InputStream corpo) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        Importacao importacao = new Importacao();
+
+        String cabecalho = reader.readLine();
+        if (cabecalho == null) {
+            return importacao.finish();
+        }
+        List<String> colunas = parseCsvLine(removeBom(cabecalho)).stream().map(String::trim).toList();
+
+        long numeroLinha = 1;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            List<String> valores = parseCsvLine(linha);
+            if (valores.size() != colunas.size()) {
+                importacao.reject(numeroLinha, List.of(String.format(
+                        "esperadas %d colunas, encontradas %d", colunas.size(), valores.size())));
+                continue;
+            }
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < colunas.size(); i++) {
+                campos.put(colunas.get(i), valores.get(i).trim());
+            }
+            try {
+                importacao.add(numeroLinha, toAluno(campos));
+            } catch (DateTimeParseException e) {
+                importacao.reject(numeroLinha, List.of("dataNascimento: formato esperado dd-MM-yyyy"));
+            }
+        }
+        return importacao.finish();
+    }
+
+    /**
+     * NDJSON: um objeto Aluno por linha, no mesmo formato aceito por POST /alunos.
+     */
+    public ResultadoImportacaoDTO importNdjson(InputStream corpo) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8));
+        Importacao importacao = new Importacao();
+
+        long numeroLinha = 0;
+        String linha;
+        while ((linha = reader.readLine()) != null) {
+            numeroLinha++;
+            if (linha.isBlank()) {
+                continue;
+            }
+            try {
+                importacao.add(numeroLinha, objectMapper.readValue(linha, Aluno.class));
+            } catch (JsonProcessingException e) {
+                importacao.reject(numeroLinha, List.of("JSON inválido: " + e.getOriginalMessage()));
+            }
+        }
+        return importacao.finish();
+    }
+
+    private Aluno toAluno(Map<String, String> campos) {
+        Aluno aluno = new Aluno();
+        aluno.setNome(emptyToNull(campos.get("nome")));
+        aluno.setTurma(emptyToNull(campos.get("turma")));
+        aluno.setContato(emptyToNull(campos.get("contato")));
+        aluno.setMatricula(emptyToNull(campos.get("matricula")));
+        String dataNascimento = emptyToNull(campos.get("dataNascimento"));
+        if (dataNascimento != null) {
+            aluno.setDataNascimento(LocalDate.parse(dataNascimento, FORMATO_DATA));
+        }
+        aluno.setEndereco(new Endereco(
+                emptyToNull(campos.get("rua")),
+                emptyToNull(campos.get("numero")),
+                emptyToNull(campos.get("cep")),
+                emptyToNull(campos.get("cidade")),
+                emptyToNull(campos.get("estado"))
+        ));
+        return aluno;
+    }
+
+    private static String emptyToNull(String valor) {
+        return valor == null || valor.isEmpty() ? null : valor;
+    }
+
+    private static String removeBom(String linha) {
+        return linha.startsWith("\uFEFF") ? linha.substring(1) : linha;
+    }
+
+    // Separador vírgula; aspas duplas delimitam campos e "" representa uma aspa literal
+    private static List<String> parseCsvLine(String linha) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                valores.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        valores.add(atual.toString());
+        return valores;
+    }
+
+    private record LinhaImportacao(long numero, Aluno aluno) {
+    }
+
+    /**
+     * Estado de uma importação em andamento: acumula as linhas válidas até completar um lote.
+     */
+    private class Importacao {
+        private final List<LinhaImportacao> pendentes = new ArrayList<>(TAMANHO_LOTE);
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+        private long processadas;
+        private long importados;
+
+        void add(long numeroLinha, Aluno aluno) {
+            processadas++;
+            List<String> violacoes = validator.validate(aluno).stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .collect(Collectors.toCollection(ArrayList::new));
+            if (aluno.getEndereco() != null) {
+                // o endereço não é validado em cascata (campos opcionais); só os tamanhos das colunas
+                validator.validate(aluno.getEndereco()).stream()
+                        .filter(v -> v.getConstraintDescriptor().getAnnotation() instanceof Size)
+                        .map(v -> "endereco." + v.getPropertyPath() + ": " + v.getMessage())
+                        .forEach(violacoes::add);
+            }
+            if (!violacoes.isEmpty()) {
+                erros.add(new ErroImportacaoDTO(numeroLinha, violacoes.stream().sorted().toList()));
+                return;
+            }
+            pendentes.add(new LinhaImportacao(numeroLinha, aluno));
+            if (pendentes.size() >= TAMANHO_LOTE) {
+                flush();
+            }
+        }
+
+        void reject(long numeroLinha, List<String> mensagens) {
+            processadas++;
+            erros.add(new ErroImportacaoDTO(numeroLinha, mensagens));
+        }
+
+        ResultadoImportacaoDTO finish() {
+            flush();
+            return new ResultadoImportacaoDTO(processadas, importados, erros);
+        }
+
+        private void flush() {
+            if (pendentes.isEmpty()) {
+                return;
+            }
+            List<LinhaImportacao> lote = rejectDuplicateMatriculas(new ArrayList<>(pendentes));
+            pendentes.clear();
+            if (lote.isEmpty()) {
+                return;
+            }
+
+            List<LinhaImportacao> semMatricula = lote.stream()
+                    .filter(l -> l.aluno().getMatricula() == null || l.aluno().getMatricula().isEmpty())
+                    .toList();
+            // informadas no arquivo podem cair dentro do bloco reservado; o gerador só conhece as do banco
+            Set<String> informadas = lote.stream()
+                    .map(l -> l.aluno().getMatricula())
+                    .filter(m -> m != null && !m.isEmpty())
+                    .collect(Collectors.toSet());
+            // antes da transação do lote: a reserva do bloco não pode esperar uma segunda conexão
+            Iterator<String> novasMatriculas = matriculaGenerator.next(semMatricula.size(), informadas).iterator();
+            semMatricula.forEach(l -> l.aluno().setMatricula(novasMatriculas.next()));
+
+            List<Aluno> alunos = lote.stream().map(LinhaImportacao::aluno).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    alunoRepository.saveAll(alunos);
+                    alunoEventOutbox.createdAll(alunos);
+                    alunoRepository.flush();
+                });
+            } catch (DataIntegrityViolationException e) {
+                saveOneByOne(lote);
+                return;
+            }
+            importados += alunos.size();
+        }
+
+        // Caminho de exceção: uma transação por linha, para gravar as válidas e apontar só as recusadas
+        private void saveOneByOne(List<LinhaImportacao> lote) {
+            for (LinhaImportacao linha : lote) {
+                Aluno aluno = linha.aluno();
+                // o id atribuído na tentativa desfeita não existe no banco; volta a ser um aluno novo
+                aluno.setId(0);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        alunoRepository.saveAndFlush(aluno);
+                        alunoEventOutbox.created(aluno);
+                    });
+                    importados++;
+                } catch (DataIntegrityViolationException e) {
+                    aluno.setId(0);
+                    erros.add(new ErroImportacaoDTO(linha.numero(),
+                            List.of("rejeitado pelo banco: " + e.getMostSpecificCause().getMessage())));
+                }
+            }
+        }
+
+        // Matrículas informadas precisam ser únicas no lote e ainda não existir no banco
+        private List<LinhaImportacao> rejectDuplicateMatriculas(List<LinhaImportacao> lote) {
+            Map<String, LinhaImportacao> informadas = lote.stream()
+                    .filter(l -> l.aluno().getMatricula() != null && !l.aluno().getMatricula().isEmpty())
+                    .collect(Collectors.toMap(l -> l.aluno().getMatricula(), Function.identity(), (a, b) -> a));
+            if (informadas.isEmpty()) {
+                return lote;
+            }
+            Set<String> existentes = alunoRepository.findMatriculasExistentes(informadas.keySet());
+            Set<String> vistas = new HashSet<>();
+
+            List<LinhaImportacao> aceitas = new ArrayList<>(lote.size());
+            for (LinhaImportacao linha : lote) {
+                String matricula = linha.aluno().getMatricula();
+                if (matricula == null || matricula.isEmpty()) {
+                    aceitas.add(linha);
+                } else if (existentes.contains(matricula)) {
+                    erros.add(new ErroImportacaoDTO(linha.numero(), List.of("matricula: já cadastrada (" + matricula + ")")));
+                } else if (!vistas.add(matricula)) {
+                    erros.add(new ErroImportacaoDTO(linha.numero(), List.of("matricula: repetida no arquivo (" + matricula + ")")));
+                } else {
+                    aceitas.add(linha);
+                }
+            }
+            return aceitas;
+        }
+    }
+}
@@ -1,29 +1,45 @@
 package com.example.DistriSchool.service;
 
 import com.example.DistriSchool.config.RabbitMQConfig;
-import com.example.DistriSchool.domain.Aluno;
-import org.springframework.amqp.AmqpException;
+import com.example.DistriSchool.domain.EventoOutbox;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
 @Component
 public class AlunoProducer {
     private static final String EXCHANGE_NAME = RabbitMQConfig.EXCHANGE;
+    private static final long CONFIRM_TIMEOUT_MS = 10_000;
 
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
-    public void sendMessage(Aluno aluno){
-        String routingKey = "aluno.created";
-
-        try {
-            rabbitTemplate.convertAndSend(EXCHANGE_NAME, routingKey, aluno);
-            System.out.println("Evento criado para o rabbitMQ: aluno criado: " + aluno.getId());
-        } catch (AmqpException e) {
-            System.err.println("CRITICAL: falha ao enviar evento RabbitMQ. Mensagem Perdida: " + e.getMessage());
-        }
+    /**
+     * Publica o lote num único canal e aguarda a confirmação do broker.
+     * Lança AmqpException se algum evento não for confirmado.
+     */
+    public void publishConfirmed(List<EventoOutbox> eventos) {
+        rabbitTemplate.invoke(operations -> {
+            for (EventoOutbox evento : eventos) {
+                operations.send(EXCHANGE_NAME, evento.getRoutingKey(), toMessage(evento));
+            }
+            operations.waitForConfirmsOrDie(CONFIRM_TIMEOUT_MS);
+            return null;
+        });
+        System.out.println("Eventos enviados para o RabbitMQ: " + eventos.size());
+    }
 
-        System.out.println("Evento enviado para o RabbitMQ: aluno criado: " + aluno.getId());
+    private Message toMessage(EventoOutbox evento) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setMessageId(String.valueOf(evento.getId()));
+        properties.setHeader("__TypeId__", evento.getTipoPayload());
+        return new Message(evento.getPayload().getBytes(StandardCharsets.UTF_8), properties);
     }
 }
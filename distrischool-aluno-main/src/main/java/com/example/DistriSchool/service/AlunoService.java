@@ -1,90 +1,211 @@
 package com.example.DistriSchool.service;
 
+import com.example.DistriSchool.config.CacheConfig;
 import com.example.DistriSchool.domain.Aluno;
+import com.example.DistriSchool.dto.AlunoRemovidoDTO;
 import com.example.DistriSchool.dto.FiltroAlunoDTO;
+import com.example.DistriSchool.dto.LoteAlunosDTO;
+import com.example.DistriSchool.dto.PaginaAlunoDTO;
+import com.example.DistriSchool.dto.ResultadoRemocaoDTO;
 import com.example.DistriSchool.repository.AlunoRepository;
-import org.springframework.amqp.AmqpException;
+import com.example.DistriSchool.repository.AlunoSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.Year;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AlunoService {
 
+    public static final int TAMANHO_PAGINA_PADRAO = 50;
+    public static final int TAMANHO_PAGINA_MAXIMO = 500;
+    public static final int LIMITE_BUSCA_PADRAO = 20;
+    public static final int LIMITE_BUSCA_MAXIMO = 100;
+    public static final int IDS_POR_BUSCA_MAXIMO = 500;
+
     @Autowired
     private AlunoRepository alunoRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.default_schema}")
+    private String schema;
+
+    @Autowired
+    private AlunoEventOutbox alunoEventOutbox;
+
     @Autowired
-    private AlunoProducer alunoProducer;
+    private MatriculaGenerator matriculaGenerator;
+
+    @Autowired
+    private AlunoCacheInvalidator cacheInvalidator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public AlunoService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
+    // Sem @Transactional: a matrícula é reservada antes de a transação pegar uma conexão do pool
     public Aluno save(Aluno aluno) {
         if (aluno.getMatricula() == null || aluno.getMatricula().isEmpty()) {
-            String novaMatricula = generateRandomMatricula();
-            aluno.setMatricula(novaMatricula);
+            aluno.setMatricula(matriculaGenerator.next());
         }
 
-        Aluno alunoSalvo = alunoRepository.save(aluno);
-        alunoProducer.sendMessage(alunoSalvo);
-        return alunoSalvo;
+        return transactionTemplate.execute(status -> {
+            Aluno alunoSalvo = alunoRepository.save(aluno);
+            alunoEventOutbox.created(alunoSalvo);
+            return alunoSalvo;
+        });
     }
 
     public List<Aluno> getAll() {
         return alunoRepository.findAll();
     }
 
+    // Ausências não são cacheadas, então criar um aluno não exige invalidação
+    @Cacheable(cacheNames = CacheConfig.ALUNOS_POR_ID, unless = "#result == null")
     public Optional<Aluno> getById(Long id) {
         return alunoRepository.findById(id);
     }
 
+    // Busca múltipla com uma única consulta IN; resultado na ordem dos ids pedidos
+    public LoteAlunosDTO getByIds(List<Long> ids) {
+        List<Long> pedidos = ids.stream().distinct().toList();
+        if (pedidos.size() > IDS_POR_BUSCA_MAXIMO) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Máximo de " + IDS_POR_BUSCA_MAXIMO + " ids por requisição, recebidos " + pedidos.size());
+        }
+        Map<Long, Aluno> encontrados = alunoRepository.findAllById(pedidos).stream()
+                .collect(Collectors.toMap(Aluno::getId, Function.identity()));
+        return new LoteAlunosDTO(
+                pedidos.stream().filter(encontrados::containsKey).map(encontrados::get).toList(),
+                pedidos.stream().filter(id -> !encontrados.containsKey(id)).toList());
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ALUNOS_POR_MATRICULA, unless = "#result == null")
     public Optional<Aluno> getByMatricula(String matricula) {
         return alunoRepository.findByMatricula(matricula);
     }
 
-    public List<Aluno> getByFilter(FiltroAlunoDTO filtro) {
-        if (filtro.getNome() != null && !filtro.getNome().isEmpty()) {
-            return alunoRepository.findByNomeContainingIgnoreCase(filtro.getNome());
+    public PaginaAlunoDTO getByFilter(FiltroAlunoDTO filtro, Long cursor, Integer tamanho) {
+        long aposId = cursor != null ? cursor : 0L;
+        int tamanhoPagina = tamanho == null || tamanho <= 0
+                ? TAMANHO_PAGINA_PADRAO
+                : Math.min(tamanho, TAMANHO_PAGINA_MAXIMO);
+
+        Specification<Aluno> spec = AlunoSpecifications.porFiltro(filtro, schema + ".normalizar_nome")
+                .and(AlunoSpecifications.idMaiorQue(aposId));
+        // busca um registro a mais para saber se existe próxima página
+        List<Aluno> alunos = alunoRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("id"))
+                .limit(tamanhoPagina + 1)
+                .all());
+
+        if (alunos.size() <= tamanhoPagina) {
+            return new PaginaAlunoDTO(alunos, null);
         }
+        List<Aluno> pagina = alunos.subList(0, tamanhoPagina);
+        return new PaginaAlunoDTO(pagina, pagina.get(tamanhoPagina - 1).getId());
+    }
 
-        if (filtro.getTurma() != null && !filtro.getTurma().isEmpty()) {
-            return alunoRepository.findByTurmaIgnoreCase(filtro.getTurma());
+    public List<Aluno> searchByNome(String termo, Integer limite) {
+        if (termo == null || termo.isBlank()) {
+            return List.of();
         }
+        int limiteBusca = limite == null || limite <= 0
+                ? LIMITE_BUSCA_PADRAO
+                : Math.min(limite, LIMITE_BUSCA_MAXIMO);
+        return alunoRepository.searchByNomeSimilar(termo.trim(), limiteBusca);
+    }
 
-        return alunoRepository.findAll();
+    /**
+     * Percorre todos os alunos por um cursor JDBC, sem carregar a tabela inteira em memória.
+     * Cada entidade é desanexada após o consumo para manter o contexto de persistência vazio.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Aluno> consumer) {
+        try (Stream<Aluno> alunos = alunoRepository.streamAllOrderById()) {
+            alunos.forEach(aluno -> {
+                consumer.accept(aluno);
+                entityManager.detach(aluno);
+            });
+        }
     }
 
+    /**
+     * O aluno é lido com lock de escrita: uma segunda alteração concorrente espera o commit desta
+     * antes de gravar o próprio evento, que assim recebe ordem maior na outbox.
+     */
+    @Transactional
     public Optional<Aluno> update(Long id, Aluno alunoInfo) {
-        Optional<Aluno> alunoOptional = alunoRepository.findById(id);
+        Optional<Aluno> alunoOptional = alunoRepository.findByIdForUpdate(id);
 
         if (alunoOptional.isPresent()) {
             Aluno aluno = alunoOptional.get();
+            String matriculaAnterior = aluno.getMatricula();
             aluno.setNome(alunoInfo.getNome());
             aluno.setMatricula(alunoInfo.getMatricula());
             aluno.setDataNascimento(alunoInfo.getDataNascimento());
             aluno.setTurma(alunoInfo.getTurma());
             aluno.setEndereco(alunoInfo.getEndereco());
-            return Optional.of(alunoRepository.save(aluno));
+            Aluno alunoSalvo = alunoRepository.save(aluno);
+            alunoEventOutbox.updated(alunoSalvo);
+            cacheInvalidator.invalidate(id, matriculaAnterior, alunoSalvo.getMatricula());
+            return Optional.of(alunoSalvo);
         }
         return Optional.empty();
     }
 
+    @Transactional
     public void delete(Long id) {
-        if (!alunoRepository.existsById(id)) {
-            throw new EmptyResultDataAccessException(
-                    String.format("Nenhum Aluno encontrado com o ID %d", id), 1
-            );
-        }
-        alunoRepository.deleteById(id);
+        // lock de escrita pelo mesmo motivo de update: o aluno.deleted não pode passar à frente de um update
+        Aluno aluno = alunoRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new EmptyResultDataAccessException(
+                        String.format("Nenhum Aluno encontrado com o ID %d", id), 1
+                ));
+        alunoRepository.delete(aluno);
+        alunoEventOutbox.deleted(id, aluno.getMatricula());
+        cacheInvalidator.invalidate(id, aluno.getMatricula());
     }
 
-    private String generateRandomMatricula() {
-        String ano = String.valueOf(Year.now());
-        Random random = new Random();
-        int numAleatorio = random.nextInt(900000) + 100000;
-        return ano + String.valueOf(numAleatorio);
+    /**
+     * Remove o lote com um único DELETE ... RETURNING; os eventos aluno.deleted vão juntos para a outbox
+     * e a invalidação de cache sai numa só mensagem.
+     */
+    @Transactional
+    public ResultadoRemocaoDTO deleteAll(List<Long> ids) {
+        List<Long> pedidos = ids.stream().distinct().toList();
+        List<AlunoRemovidoDTO> removidos = alunoRepository.deleteAllByIdReturning(pedidos.toArray(Long[]::new)).stream()
+                .map(linha -> new AlunoRemovidoDTO(((Number) linha[0]).longValue(), (String) linha[1]))
+                .toList();
+        Set<Long> idsRemovidos = removidos.stream().map(AlunoRemovidoDTO::getId).collect(Collectors.toSet());
+        if (!removidos.isEmpty()) {
+            alunoEventOutbox.deletedAll(removidos);
+            cacheInvalidator.invalidateAll(removidos);
+        }
+        return new ResultadoRemocaoDTO(
+                pedidos.stream().filter(idsRemovidos::contains).toList(),
+                pedidos.stream().filter(id -> !idsRemovidos.contains(id)).toList());
     }
 }
@@ -0,0 +1,138 @@
+package com.example.DistriSchool.service;
+
+import com.example.DistriSchool.repository.AlunoRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Gera matrículas no formato {@code <ano><6 dígitos>} sem colisão entre réplicas.
+ * Cada instância reserva no banco um bloco de sequenciais do ano (hi/lo) e os distribui
+ * da memória sem lock; o banco só é consultado quando o bloco acaba.
+ *
+ * Deve ser chamado fora de transação: a reserva usa uma conexão do pool, e um chamador que já
+ * segurasse outra (N criações concorrentes com N conexões) ficaria esperando a N+1-ésima.
+ */
+@Component
+public class MatriculaGenerator {
+
+    private static final long MAIOR_SEQUENCIAL = 999_999L;
+
+    private static final String RESERVAR_BLOCO = """
+            INSERT INTO {h-schema}matricula_sequencia AS s (ano, proximo) VALUES (:ano, 1 + :tamanho)
+            ON CONFLICT (ano) DO UPDATE SET proximo = s.proximo + :tamanho
+            RETURNING proximo
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoBloco;
+    private final AtomicReference<Bloco> blocoAtual = new AtomicReference<>();
+
+    public MatriculaGenerator(PlatformTransactionManager transactionManager,
+                              @Value("${aluno.matricula.tamanho-bloco:100}") int tamanhoBloco) {
+        // a reserva é confirmada sozinha, sem prender a linha do ano até o fim de outra transação
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoBloco = tamanhoBloco;
+    }
+
+    public String next() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("MatriculaGenerator deve ser chamado antes de abrir a transação");
+        }
+        int ano = Year.now().getValue();
+        while (true) {
+            Bloco bloco = blocoAtual.get();
+            if (bloco != null && bloco.ano == ano) {
+                String matricula = bloco.next();
+                if (matricula != null) {
+                    return matricula;
+                }
+            }
+            reserve(bloco, ano);
+        }
+    }
+
+    public List<String> next(int quantidade) {
+        return next(quantidade, Set.of());
+    }
+
+    /**
+     * Como {@link #next(int)}, pulando matrículas que ainda não estão no banco mas já foram
+     * informadas no mesmo lote (p.ex. linhas de uma importação que trazem matrícula própria).
+     */
+    public List<String> next(int quantidade, Set<String> reservadasNoLote) {
+        List<String> matriculas = new ArrayList<>(quantidade);
+        while (matriculas.size() < quantidade) {
+            String matricula = next();
+            if (!reservadasNoLote.contains(matricula)) {
+                matriculas.add(matricula);
+            }
+        }
+        return matriculas;
+    }
+
+    private synchronized void reserve(Bloco esgotado, int ano) {
+        if (blocoAtual.get() != esgotado) {
+            return; // outra thread já reservou um bloco novo
+        }
+        long fim = transactionTemplate.execute(status -> ((Number) entityManager.createNativeQuery(RESERVAR_BLOCO)
+                .setParameter("ano", ano)
+                .setParameter("tamanho", tamanhoBloco)
+                .getSingleResult()).longValue());
+        long inicio = fim - tamanhoBloco;
+        if (inicio > MAIOR_SEQUENCIAL) {
+            throw new IllegalStateException("Sequencial de matrículas esgotado para o ano " + ano);
+        }
+        fim = Math.min(fim, MAIOR_SEQUENCIAL + 1);
+
+        // matrículas antigas (aleatórias) ou informadas manualmente que caem dentro do bloco
+        Set<String> ocupadas = alunoRepository.findMatriculasNoIntervalo(format(ano, inicio), format(ano, fim - 1));
+        blocoAtual.set(new Bloco(ano, inicio, fim, ocupadas));
+    }
+
+    private static String format(int ano, long sequencial) {
+        return String.format("%d%06d", ano, sequencial);
+    }
+
+    private static final class Bloco {
+        private final int ano;
+        private final long fim;
+        private final Set<String> ocupadas;
+        private final AtomicLong proximo;
+
+        private Bloco(int ano, long inicio, long fim, Set<String> ocupadas) {
+            this.ano = ano;
+            this.fim = fim;
+            this.ocupadas = ocupadas;
+            this.proximo = new AtomicLong(inicio);
+        }
+
+        private String next() {
+            for (long sequencial = proximo.getAndIncrement(); sequencial < fim; sequencial = proximo.getAndIncrement()) {
+                String matricula = format(ano, sequencial);
+                if (!ocupadas.contains(matricula)) {
+                    return matricula;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.DistriSchool.service;
+
+import com.example.DistriSchool.domain.EventoOutbox;
+import com.example.DistriSchool.repository.EventoOutboxRepository;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drena a aluno_outbox em lotes: publica com confirmação do broker e só então marca os
+ * eventos como enviados. Se o RabbitMQ estiver fora, o lote volta a ficar pendente.
+ *
+ * Ordem: os eventos de um mesmo aluno (created, updated, deleted) são publicados na ordem em que
+ * as transações que os gravaram fizeram commit. Só uma réplica drena por vez (advisory lock de
+ * transação) e a fila é lida pela coluna ordem, atribuída pelo banco no INSERT; as escritas de um
+ * mesmo aluno são serializadas pelo lock da linha (AlunoService.update/delete). Um lote que falha é reenviado inteiro e na mesma
+ * ordem, então o consumidor pode receber de novo eventos já entregues e deve descartá-los pelo
+ * messageId (id do evento).
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private AlunoProducer alunoProducer;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final Duration retencao;
+
+    public OutboxRelay(PlatformTransactionManager transactionManager,
+                       @Value("${aluno.outbox.lote:200}") int tamanhoLote,
+                       @Value("${aluno.outbox.retencao-horas:24}") long retencaoHoras) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.retencao = Duration.ofHours(retencaoHoras);
+    }
+
+    @Scheduled(fixedDelayString = "${aluno.outbox.intervalo-ms:500}")
+    public void relay() {
+        try {
+            int enviados;
+            do {
+                enviados = transactionTemplate.execute(status -> sendBatch());
+            } while (enviados == tamanhoLote);
+        } catch (AmqpException e) {
+            System.err.println("Relay da outbox: RabbitMQ indisponível, nova tentativa no próximo ciclo: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${aluno.outbox.limpeza-intervalo-ms:3600000}")
+    public void prune() {
+        Instant limite = Instant.now().minus(retencao);
+        Integer removidos = transactionTemplate.execute(status -> eventoOutboxRepository.deleteEnviadosAntesDe(limite));
+        if (removidos != null && removidos > 0) {
+            System.out.println("Relay da outbox: " + removidos + " eventos enviados removidos");
+        }
+    }
+
+    private int sendBatch() {
+        if (!eventoOutboxRepository.tryLockRelay()) {
+            return 0; // outra réplica está drenando
+        }
+        List<EventoOutbox> lote = eventoOutboxRepository.findPendentes(tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+        alunoProducer.publishConfirmed(lote);
+        Instant agora = Instant.now();
+        lote.forEach(evento -> evento.setEnviadoEm(agora));
+        return lote.size();
+    }
+}
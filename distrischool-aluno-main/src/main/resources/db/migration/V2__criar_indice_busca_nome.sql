@@ -0,0 +1,11 @@
+-- V2__criar_indice_busca_nome.sql
+CREATE EXTENSION IF NOT EXISTS pg_trgm WITH SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS unaccent WITH SCHEMA public;
+
+-- unaccent() não é IMMUTABLE; o wrapper com dicionário explícito permite usá-lo em índice
+CREATE OR REPLACE FUNCTION normalizar_nome(texto TEXT) RETURNS TEXT AS $$
+    SELECT lower(public.unaccent('public.unaccent'::regdictionary, texto))
+$$ LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT;
+
+CREATE INDEX idx_aluno_nome_normalizado_trgm
+    ON aluno USING gin (normalizar_nome(nome) public.gin_trgm_ops);
@@ -0,0 +1,8 @@
+-- V3__criar_indices_filtro_aluno.sql
+-- Índices compostos terminando em id, para filtros combinados com paginação por cursor
+CREATE INDEX idx_aluno_turma_id ON aluno (lower(turma), id);
+CREATE INDEX idx_aluno_estado_cidade_id ON aluno (upper(endereco_estado), lower(endereco_cidade), id);
+CREATE INDEX idx_aluno_data_nascimento_id ON aluno (data_nascimento, id);
+
+-- LIKE 'prefixo%' só usa índice b-tree com pattern_ops fora da collation C
+CREATE INDEX idx_aluno_matricula_prefixo ON aluno (matricula varchar_pattern_ops);
@@ -0,0 +1,4 @@
+-- V4__aluno_id_sequencia_em_blocos.sql
+-- O Hibernate passa a reservar ids em blocos de 50 (otimizador pooled), o que permite
+-- agrupar os INSERTs em lotes JDBC. IDENTITY obrigava um round trip por linha.
+ALTER TABLE aluno ALTER COLUMN id SET INCREMENT BY 50;
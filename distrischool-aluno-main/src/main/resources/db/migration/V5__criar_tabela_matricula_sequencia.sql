@@ -0,0 +1,6 @@
+-- V5__criar_tabela_matricula_sequencia.sql
+-- Próximo sequencial livre de matrícula por ano; cada instância reserva blocos a partir daqui
+CREATE TABLE matricula_sequencia (
+    ano INT PRIMARY KEY,
+    proximo BIGINT NOT NULL
+);
@@ -0,0 +1,15 @@
+-- V6__criar_tabela_aluno_outbox.sql
+-- Eventos gravados na mesma transação do aluno e publicados depois pelo relay
+CREATE SEQUENCE aluno_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE aluno_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('aluno_outbox_id_seq'),
+    routing_key VARCHAR(100) NOT NULL,
+    tipo_payload VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    criado_em TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    enviado_em TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX idx_aluno_outbox_pendentes ON aluno_outbox (id) WHERE enviado_em IS NULL;
+CREATE INDEX idx_aluno_outbox_enviado_em ON aluno_outbox (enviado_em) WHERE enviado_em IS NOT NULL;
@@ -0,0 +1,21 @@
+-- V7__ordem_publicacao_aluno_outbox.sql
+-- O id vem em blocos de 50 por réplica e não acompanha a ordem em que os eventos foram gravados.
+-- ordem é atribuída pelo banco no INSERT (sequência sem cache de blocos), e o INSERT da outbox só sai
+-- no flush. Para que dois eventos do mesmo aluno recebam ordem crescente, AlunoService.update/delete
+-- leem o aluno com SELECT ... FOR UPDATE antes de gravar o evento: a segunda transação espera o commit
+-- da primeira e só então chama nextval. A remoção em lote (DELETE ... RETURNING) trava as linhas no
+-- próprio comando, antes dos INSERTs da outbox.
+CREATE SEQUENCE aluno_outbox_ordem_seq;
+
+ALTER TABLE aluno_outbox ADD COLUMN ordem BIGINT;
+
+UPDATE aluno_outbox o SET ordem = n.ordem
+FROM (SELECT id, nextval('aluno_outbox_ordem_seq') AS ordem FROM (SELECT id FROM aluno_outbox ORDER BY id) ids) n
+WHERE o.id = n.id;
+
+ALTER TABLE aluno_outbox ALTER COLUMN ordem SET DEFAULT nextval('aluno_outbox_ordem_seq');
+ALTER TABLE aluno_outbox ALTER COLUMN ordem SET NOT NULL;
+ALTER SEQUENCE aluno_outbox_ordem_seq OWNED BY aluno_outbox.ordem;
+
+DROP INDEX idx_aluno_outbox_pendentes;
+CREATE INDEX idx_aluno_outbox_pendentes ON aluno_outbox (ordem) WHERE enviado_em IS NULL;
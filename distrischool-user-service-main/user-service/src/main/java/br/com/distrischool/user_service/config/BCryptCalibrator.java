@@ -0,0 +1,36 @@
+package br.com.distrischool.user_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Escolhe o custo do BCrypt para o hardware atual: o maior custo cujo hash
+ * não passe do tempo alvo. Cada +1 no custo dobra o tempo de hash.
+ */
+final class BCryptCalibrator {
+
+  private static final Logger log = LoggerFactory.getLogger(BCryptCalibrator.class);
+  private static final String AMOSTRA = "calibracao-bcrypt";
+
+  private BCryptCalibrator() {}
+
+  static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+    int strength = minStrength;
+    new BCryptPasswordEncoder(strength).encode(AMOSTRA); // aquecimento (JIT)
+    long millis = measure(strength);
+    while (strength < maxStrength && millis * 2 <= targetMillis) {
+      strength++;
+      millis = measure(strength);
+    }
+    log.info("BCrypt calibrado: custo={} (~{} ms por hash, alvo {} ms)", strength, millis, targetMillis);
+    return strength;
+  }
+
+  private static long measure(int strength) {
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+    long inicio = System.nanoTime();
+    encoder.encode(AMOSTRA);
+    return (System.nanoTime() - inicio) / 1_000_000;
+  }
+}
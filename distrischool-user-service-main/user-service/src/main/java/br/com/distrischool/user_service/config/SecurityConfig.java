@@ -1,5 +1,6 @@
 package br.com.distrischool.user_service.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,13 +17,18 @@ public class SecurityConfig {
       .csrf(csrf -> csrf.disable())
       .authorizeHttpRequests(auth -> auth
         .requestMatchers("/actuator/health").permitAll()
-        .anyRequest().permitAll() // por ora, sem auth; JWT virá depois
+        .requestMatchers("/auth/login", "/auth/jwks").permitAll()
+        .anyRequest().permitAll() // tokens emitidos em /auth/login são verificados no gateway
       );
     return http.build();
   }
 
   @Bean
-  public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder(); // hashing de senha
+  public PasswordEncoder passwordEncoder(
+      @Value("${user.password.bcrypt.strength:0}") int strength,
+      @Value("${user.password.bcrypt.target-ms:250}") long targetMillis) {
+    // custo fixo se configurado; senão calibrado no startup para o hardware atual
+    int custo = strength > 0 ? strength : BCryptCalibrator.calibrate(targetMillis, 10, 14);
+    return new BCryptPasswordEncoder(custo); // hashing de senha
   }
 }
@@ -0,0 +1,45 @@
+package br.com.distrischool.user_service.controller;
+
+import br.com.distrischool.user_service.dto.LoginRequest;
+import br.com.distrischool.user_service.dto.LoginResponse;
+import br.com.distrischool.user_service.service.AuthService;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import jakarta.validation.Valid;
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private final AuthService service;
+    private final Map<String, Object> jwks;
+
+    public AuthController(AuthService service, RSAKey tokenSigningKey) {
+        this.service = service;
+        // somente a parte pública da chave
+        this.jwks = new JWKSet(tokenSigningKey.toPublicJWK()).toJSONObject();
+    }
+
+    //-------------------------------------------------------------
+    // POST /auth/login
+    //-------------------------------------------------------------
+    @PostMapping("/login")
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest req) {
+        return ResponseEntity.ok(service.login(req));
+    }
+
+    //-------------------------------------------------------------
+    // GET /auth/jwks  (chave pública para verificação dos tokens no gateway)
+    //-------------------------------------------------------------
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+            .body(jwks);
+    }
+}
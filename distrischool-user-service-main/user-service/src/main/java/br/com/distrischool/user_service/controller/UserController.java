@@ -1,11 +1,16 @@
 package br.com.distrischool.user_service.controller;
 
+import br.com.distrischool.user_service.dto.BatchResponse;
+import br.com.distrischool.user_service.dto.BulkCreateUsersResponse;
 import br.com.distrischool.user_service.dto.CreateUserRequest;
+import br.com.distrischool.user_service.dto.CursorPage;
 import br.com.distrischool.user_service.dto.UpdateUserRequest;
 import br.com.distrischool.user_service.dto.UserResponse;
+import br.com.distrischool.user_service.service.UserProvisioningService;
 import br.com.distrischool.user_service.service.UserService;
 import jakarta.validation.Valid;
 import java.net.URI;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -18,10 +23,12 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService service;
+    private final UserProvisioningService provisioningService;
 
     // Injeção de dependência via Construtor (Boa Prática)
-    public UserController(UserService service) {
+    public UserController(UserService service, UserProvisioningService provisioningService) {
         this.service = service;
+        this.provisioningService = provisioningService;
     }
 
     //-------------------------------------------------------------
@@ -36,6 +43,14 @@ public class UserController {
         return ResponseEntity.created(URI.create("/users/" + created.id())).body(created);
     }
 
+    //-------------------------------------------------------------
+    // POST /users/bulk  (provisionamento em massa, resultado por item)
+    //-------------------------------------------------------------
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkCreateUsersResponse> createBulk(@RequestBody List<CreateUserRequest> reqs) {
+        return ResponseEntity.ok(provisioningService.createAll(reqs));
+    }
+
     //-------------------------------------------------------------
     // GET /users/{id}
     //-------------------------------------------------------------
@@ -52,6 +67,24 @@ public class UserController {
         return ResponseEntity.ok(service.list(pageable));
     }
 
+    //-------------------------------------------------------------
+    // GET /users?ids=1,2,3  (busca múltipla, até 500; ordem pedida + missing)
+    //-------------------------------------------------------------
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<UserResponse>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
+    //-------------------------------------------------------------
+    // GET /users/scroll?cursor=...&sort=name&size=50  (por cursor, sem COUNT)
+    //-------------------------------------------------------------
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<UserResponse>> scroll(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) String sort,
+                                                           @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(service.scroll(cursor, sort, size));
+    }
+
     //-------------------------------------------------------------
     // PUT /users/{id}
     //-------------------------------------------------------------
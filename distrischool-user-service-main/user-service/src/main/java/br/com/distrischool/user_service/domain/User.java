@@ -4,18 +4,18 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users", uniqueConstraints = {
-    @UniqueConstraint(name = "uk_users_email", columnNames = "email")
-})
+@Table(name = "users")
 public class User {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+  @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, length = 120)
   private String name;
 
+  // único sem diferenciar maiúsculas: índice funcional uk_users_email em lower(email) (V3)
   @Column(nullable = false, length = 180)
   private String email;
 
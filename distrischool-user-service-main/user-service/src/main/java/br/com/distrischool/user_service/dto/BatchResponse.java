@@ -0,0 +1,9 @@
+package br.com.distrischool.user_service.dto;
+
+import java.util.List;
+
+// Busca múltipla por ids: encontrados na ordem pedida; ids inexistentes em missing
+public record BatchResponse<T>(
+    List<T> content,
+    List<Long> missing
+) {}
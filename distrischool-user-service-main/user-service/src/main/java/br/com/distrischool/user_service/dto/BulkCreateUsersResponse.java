@@ -0,0 +1,9 @@
+package br.com.distrischool.user_service.dto;
+
+import java.util.List;
+
+public record BulkCreateUsersResponse(
+    int created,
+    int failed,
+    List<BulkUserResult> results
+) {}
@@ -0,0 +1,11 @@
+package br.com.distrischool.user_service.dto;
+
+public record BulkUserResult(
+    int index,          // posição do item no corpo da requisição
+    String email,
+    Status status,
+    Long id,
+    String message
+) {
+  public enum Status { CREATED, INVALID, CONFLICT, ERROR }
+}
@@ -0,0 +1,9 @@
+package br.com.distrischool.user_service.dto;
+
+import java.util.List;
+
+// Página de uma listagem por cursor: sem total de registros; nextCursor é nulo na última página
+public record CursorPage<T>(
+    List<T> content,
+    String nextCursor
+) {}
@@ -0,0 +1,8 @@
+package br.com.distrischool.user_service.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record LoginRequest(
+    @NotBlank String email,
+    @NotBlank String password
+) {}
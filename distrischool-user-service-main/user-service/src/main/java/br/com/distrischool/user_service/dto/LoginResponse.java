@@ -0,0 +1,7 @@
+package br.com.distrischool.user_service.dto;
+
+public record LoginResponse(
+    String accessToken,
+    String tokenType,
+    long expiresIn // segundos
+) {}
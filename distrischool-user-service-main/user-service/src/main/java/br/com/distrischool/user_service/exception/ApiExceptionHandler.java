@@ -3,6 +3,7 @@ package br.com.distrischool.user_service.exception;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -32,6 +33,48 @@ public class ApiExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
   }
 
+  @ExceptionHandler(InvalidCredentialsException.class)
+  public ResponseEntity<Map<String,Object>> handleInvalidCredentials(InvalidCredentialsException ex) {
+    Map<String,Object> body = new HashMap<>();
+    body.put("timestamp", Instant.now().toString());
+    body.put("status", 401);
+    body.put("error", "Unauthorized");
+    body.put("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
+  }
+
+  @ExceptionHandler(HashingOverloadedException.class)
+  public ResponseEntity<Map<String,Object>> handleHashingOverloaded(HashingOverloadedException ex) {
+    Map<String,Object> body = new HashMap<>();
+    body.put("timestamp", Instant.now().toString());
+    body.put("status", 503);
+    body.put("error", "Service Unavailable");
+    body.put("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(body);
+  }
+
+  @ExceptionHandler(BatchTooLargeException.class)
+  public ResponseEntity<Map<String,Object>> handleBatchTooLarge(BatchTooLargeException ex) {
+    Map<String,Object> body = new HashMap<>();
+    body.put("timestamp", Instant.now().toString());
+    body.put("status", 413);
+    body.put("error", "Payload Too Large");
+    body.put("message", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(body);
+  }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<Map<String,Object>> handleInvalidCursor(InvalidCursorException ex) {
+    Map<String,Object> body = new HashMap<>();
+    body.put("timestamp", Instant.now().toString());
+    body.put("status", 400);
+    body.put("error", "Bad Request");
+    body.put("message", ex.getMessage());
+    return ResponseEntity.badRequest().body(body);
+  }
+
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<Map<String,Object>> handleValidation(MethodArgumentNotValidException ex) {
     Map<String,Object> body = new HashMap<>();
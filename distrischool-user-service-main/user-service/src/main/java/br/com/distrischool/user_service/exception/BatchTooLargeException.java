@@ -0,0 +1,5 @@
+package br.com.distrischool.user_service.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+  public BatchTooLargeException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package br.com.distrischool.user_service.exception;
+
+public class HashingOverloadedException extends RuntimeException {
+  public HashingOverloadedException(String message) { super(message); }
+}
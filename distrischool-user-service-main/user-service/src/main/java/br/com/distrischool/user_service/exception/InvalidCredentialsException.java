@@ -0,0 +1,5 @@
+package br.com.distrischool.user_service.exception;
+
+public class InvalidCredentialsException extends RuntimeException {
+  public InvalidCredentialsException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package br.com.distrischool.user_service.exception;
+
+public class InvalidCursorException extends RuntimeException {
+  public InvalidCursorException(String message) { super(message); }
+}
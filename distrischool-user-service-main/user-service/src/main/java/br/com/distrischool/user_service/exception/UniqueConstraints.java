@@ -0,0 +1,22 @@
+package br.com.distrischool.user_service.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public final class UniqueConstraints {
+
+  public static final String USERS_EMAIL = "uk_users_email";
+
+  private UniqueConstraints() {}
+
+  // Indica se a violação de integridade veio da constraint (ou índice único) informada
+  public static boolean violates(DataIntegrityViolationException ex, String constraintName) {
+    for (Throwable t = ex; t != null; t = t.getCause()) {
+      if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+        return constraintName.equalsIgnoreCase(cve.getConstraintName());
+      }
+    }
+    String message = ex.getMostSpecificCause().getMessage();
+    return message != null && message.contains(constraintName);
+  }
+}
@@ -1,17 +1,167 @@
 package br.com.distrischool.user_service.messaging;
 
-import lombok.RequiredArgsConstructor;
+import br.com.distrischool.user_service.messaging.dto.UserEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static br.com.distrischool.user_service.config.RabbitConfig.EXCHANGE;
 
+/**
+ * Publica os eventos de usuário somente depois do commit da transação que os gerou.
+ * Eventos do mesmo usuário dentro da janela de coalescência viram um só, com o estado mais recente,
+ * e a janela inteira é enviada em lotes num único canal. Usuário criado e removido na mesma janela
+ * não gera evento algum: os consumidores nunca o viram.
+ */
 @Component
-@RequiredArgsConstructor
 public class UserEventPublisher {
+
+  private static final Logger log = LoggerFactory.getLogger(UserEventPublisher.class);
+
   private final RabbitTemplate rabbit;
+  private final int maxBatch;
+  private final Counter publicados;
+  private final Counter coalescidos;
+
+  // id do usuário -> último evento pendente (ordem de chegada preservada)
+  private final Map<Long, Pendente> pendentes = new LinkedHashMap<>();
+  private final Object envio = new Object();
+
+  public UserEventPublisher(
+      RabbitTemplate rabbit,
+      MeterRegistry meterRegistry,
+      @Value("${user.events.max-batch:500}") int maxBatch) {
+    this.rabbit = rabbit;
+    this.maxBatch = maxBatch;
+    this.publicados = Counter.builder("user.events.published").register(meterRegistry);
+    this.coalescidos = Counter.builder("user.events.coalesced")
+        .description("Eventos absorvidos por outro mais recente do mesmo usuário")
+        .register(meterRegistry);
+  }
+
+  public void publish(String routingKey, UserEventDTO event) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          enqueue(new Pendente(routingKey, event));
+        }
+      });
+    } else {
+      enqueue(new Pendente(routingKey, event));
+    }
+  }
+
+  // Publica o lote inteiro num único canal
+  public void publishAll(String routingKey, List<?> payloads) {
+    rabbit.invoke(ops -> {
+      payloads.forEach(payload -> ops.convertAndSend(EXCHANGE, routingKey, payload));
+      return null;
+    });
+  }
+
+  private void enqueue(Pendente novo) {
+    boolean cheio;
+    synchronized (pendentes) {
+      merge(novo);
+      cheio = pendentes.size() >= maxBatch;
+    }
+    if (cheio) {
+      flush();
+    }
+  }
 
-  public void publish(String routingKey, Object payload) {
-    rabbit.convertAndSend(EXCHANGE, routingKey, payload);
+  // Chamado com o lock de pendentes
+  private void merge(Pendente novo) {
+    Pendente anterior = pendentes.get(novo.event().getId());
+    if (anterior != null) {
+      coalescidos.increment();
+      if ("CREATED".equals(anterior.event().getType())) {
+        // criado e removido na mesma janela: um user.deleted sozinho seria de um usuário desconhecido
+        if ("DELETED".equals(novo.event().getType())) {
+          coalescidos.increment();
+          pendentes.remove(novo.event().getId());
+          return;
+        }
+        // criado e alterado na mesma janela: os consumidores ainda não viram o created
+        if ("UPDATED".equals(novo.event().getType())) {
+          novo = new Pendente(anterior.routingKey(), copyAs(novo.event(), "CREATED"));
+        }
+      }
+    }
+    pendentes.put(novo.event().getId(), novo);
   }
+
+  @Scheduled(fixedDelayString = "${user.events.coalesce-window-ms:200}")
+  public void flush() {
+    // um envio por vez, para que dois flushes não troquem a ordem dos eventos de um mesmo usuário
+    synchronized (envio) {
+      List<Pendente> lote;
+      synchronized (pendentes) {
+        if (pendentes.isEmpty()) {
+          return;
+        }
+        lote = new ArrayList<>(pendentes.values());
+        pendentes.clear();
+      }
+      send(lote);
+    }
+  }
+
+  private void send(List<Pendente> lote) {
+    for (int inicio = 0; inicio < lote.size(); inicio += maxBatch) {
+      List<Pendente> parte = lote.subList(inicio, Math.min(inicio + maxBatch, lote.size()));
+      try {
+        rabbit.invoke(ops -> {
+          parte.forEach(p -> ops.convertAndSend(EXCHANGE, p.routingKey(), p.event()));
+          return null;
+        });
+        publicados.increment(parte.size());
+      } catch (AmqpException e) {
+        log.error("Falha ao publicar {} eventos de usuário; serão reenviados na próxima janela", parte.size(), e);
+        requeue(lote.subList(inicio, lote.size()));
+        return;
+      }
+    }
+  }
+
+  // Devolve à fila sem sobrescrever eventos mais novos que chegaram durante o envio
+  private void requeue(List<Pendente> naoEnviados) {
+    synchronized (pendentes) {
+      List<Pendente> novos = new ArrayList<>(pendentes.values());
+      pendentes.clear();
+      naoEnviados.forEach(p -> pendentes.put(p.event().getId(), p));
+      novos.forEach(this::merge);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    flush();
+  }
+
+  private static UserEventDTO copyAs(UserEventDTO event, String type) {
+    return UserEventDTO.builder()
+        .id(event.getId())
+        .name(event.getName())
+        .email(event.getEmail())
+        .role(event.getRole())
+        .type(type)
+        .build();
+  }
+
+  private record Pendente(String routingKey, UserEventDTO event) {}
 }
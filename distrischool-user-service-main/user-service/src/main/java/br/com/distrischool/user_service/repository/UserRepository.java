@@ -1,10 +1,29 @@
 package br.com.distrischool.user_service.repository;
 
 import br.com.distrischool.user_service.domain.User;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
   boolean existsByEmail(String email);
   Optional<User> findByEmail(String email);
+
+  // usa o índice uk_users_email (lower(email))
+  @Query("select u from User u where lower(u.email) = lower(:email)")
+  Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+
+  // emails devem vir em minúsculas; compara com o mesmo lower(email) do índice uk_users_email
+  @Query("select lower(u.email) from User u where lower(u.email) in :emails")
+  Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+  // Keyset: WHERE (chave, id) > posição ORDER BY chave, id LIMIT n, sem COUNT
+  Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 }
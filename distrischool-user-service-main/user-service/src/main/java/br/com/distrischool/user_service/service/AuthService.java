@@ -0,0 +1,73 @@
+package br.com.distrischool.user_service.service;
+
+import br.com.distrischool.user_service.domain.User;
+import br.com.distrischool.user_service.dto.LoginRequest;
+import br.com.distrischool.user_service.dto.LoginResponse;
+import br.com.distrischool.user_service.exception.InvalidCredentialsException;
+import br.com.distrischool.user_service.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+/**
+ * Login por email e senha. A senha é verificada uma vez aqui; as requisições seguintes levam
+ * um token assinado e de vida curta, que o gateway valida sem consultar este serviço.
+ */
+@Service
+public class AuthService {
+
+  private final UserRepository repository;
+  private final PasswordHashingService passwordHashing;
+  private final JwtEncoder jwtEncoder;
+  private final String issuer;
+  private final Duration tokenTtl;
+  private final String dummyHash;
+
+  public AuthService(
+      UserRepository repository,
+      PasswordHashingService passwordHashing,
+      PasswordEncoder passwordEncoder,
+      JwtEncoder jwtEncoder,
+      @Value("${user.auth.jwt.issuer:distrischool-user-service}") String issuer,
+      @Value("${user.auth.jwt.ttl-seconds:900}") long ttlSeconds) {
+    this.repository = repository;
+    this.passwordHashing = passwordHashing;
+    this.jwtEncoder = jwtEncoder;
+    this.issuer = issuer;
+    this.tokenTtl = Duration.ofSeconds(ttlSeconds);
+    // usado quando o email não existe, para que a resposta leve o mesmo tempo de um BCrypt
+    this.dummyHash = passwordEncoder.encode("distrischool-dummy-password");
+  }
+
+  public LoginResponse login(LoginRequest req) {
+    Optional<User> user = repository.findByEmailIgnoreCase(req.email());
+    boolean senhaConfere = passwordHashing.matches(req.password(),
+        user.map(User::getPasswordHash).orElse(dummyHash));
+    if (user.isEmpty() || !senhaConfere) {
+      throw new InvalidCredentialsException("Email ou senha inválidos");
+    }
+    return new LoginResponse(issueToken(user.get()), "Bearer", tokenTtl.toSeconds());
+  }
+
+  private String issueToken(User u) {
+    Instant agora = Instant.now();
+    JwtClaimsSet claims = JwtClaimsSet.builder()
+        .issuer(issuer)
+        .subject(String.valueOf(u.getId()))
+        .issuedAt(agora)
+        .expiresAt(agora.plus(tokenTtl))
+        .claim("email", u.getEmail())
+        .claim("role", u.getRole().name())
+        .build();
+    JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).build();
+    return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+  }
+}
@@ -0,0 +1,108 @@
+package br.com.distrischool.user_service.service;
+
+import br.com.distrischool.user_service.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Cursor opaco para listagens por keyset: guarda a ordenação e os valores (chave de ordenação, id)
+ * do último registro entregue. A próxima página parte desse ponto com WHERE em vez de OFFSET,
+ * então a página N custa o mesmo que a primeira.
+ */
+final class KeysetCursor {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private KeysetCursor() {}
+
+  /**
+   * Resolve ordenação e posição. Com cursor, a ordenação vem dele e o parâmetro sort é ignorado.
+   */
+  static Position parse(String cursor, String sort, Set<String> allowedSorts) {
+    if (cursor == null || cursor.isBlank()) {
+      Sort.Direction direction = Sort.Direction.ASC;
+      String property = sort == null || sort.isBlank() ? "id" : sort;
+      if (property.startsWith("-")) {
+        direction = Sort.Direction.DESC;
+        property = property.substring(1);
+      }
+      if (!allowedSorts.contains(property)) {
+        throw new InvalidCursorException("Ordenação não suportada: " + property + " (use " + allowedSorts + ")");
+      }
+      return new Position(ScrollPosition.keyset(), sortBy(direction, property));
+    }
+    return decode(cursor, allowedSorts);
+  }
+
+  static String encode(KeysetScrollPosition position, Sort sort) {
+    List<List<String>> keys = new ArrayList<>();
+    position.getKeys().forEach((property, value) -> keys.add(List.of(property, typeOf(value), value.toString())));
+    try {
+      Sort.Order order = sort.iterator().next();
+      Token token = new Token(order.getDirection().name(), order.getProperty(), keys);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(token));
+    } catch (IOException e) {
+      throw new IllegalStateException("Falha ao gerar cursor", e);
+    }
+  }
+
+  private static Position decode(String cursor, Set<String> allowedSorts) {
+    try {
+      Token token = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), new TypeReference<>() {
+      });
+      if (!allowedSorts.contains(token.s())) {
+        throw new InvalidCursorException("Cursor inválido");
+      }
+      Map<String, Object> keys = new LinkedHashMap<>();
+      for (List<String> key : token.k()) {
+        if (!allowedSorts.contains(key.get(0))) {
+          throw new InvalidCursorException("Cursor inválido");
+        }
+        keys.put(key.get(0), valueOf(key.get(1), key.get(2)));
+      }
+      return new Position(ScrollPosition.forward(keys), sortBy(Sort.Direction.valueOf(token.d()), token.s()));
+    } catch (IllegalArgumentException | IOException | IndexOutOfBoundsException | NullPointerException e) {
+      throw new InvalidCursorException("Cursor inválido");
+    }
+  }
+
+  // id como desempate, na mesma direção da chave (o Spring Data o acrescentaria sempre ascendente)
+  private static Sort sortBy(Sort.Direction direction, String property) {
+    return "id".equals(property)
+        ? Sort.by(direction, "id")
+        : Sort.by(new Sort.Order(direction, property), new Sort.Order(direction, "id"));
+  }
+
+  private static String typeOf(Object value) {
+    if (value instanceof Long) {
+      return "L";
+    }
+    if (value instanceof LocalDateTime) {
+      return "T";
+    }
+    return "S";
+  }
+
+  private static Object valueOf(String type, String value) {
+    return switch (type) {
+      case "L" -> Long.valueOf(value);
+      case "T" -> LocalDateTime.parse(value);
+      default -> value;
+    };
+  }
+
+  record Position(KeysetScrollPosition scrollPosition, Sort sort) {}
+
+  private record Token(String d, String s, List<List<String>> k) {}
+}
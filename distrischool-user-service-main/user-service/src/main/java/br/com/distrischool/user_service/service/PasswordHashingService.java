@@ -0,0 +1,158 @@
+package br.com.distrischool.user_service.service;
+
+import br.com.distrischool.user_service.exception.HashingOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Executa o BCrypt num pool próprio e limitado, fora das threads do Tomcat.
+ * Com a fila cheia a requisição é recusada na hora (503) em vez de ocupar
+ * threads que atenderiam leituras baratas.
+ */
+@Service
+public class PasswordHashingService {
+
+  private final PasswordEncoder passwordEncoder;
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMillis;
+  private final Timer hashTimer;
+  private final Counter rejeitados;
+
+  public PasswordHashingService(
+      PasswordEncoder passwordEncoder,
+      MeterRegistry meterRegistry,
+      @Value("${user.password.hashing.threads:0}") int threads,
+      @Value("${user.password.hashing.queue-capacity:100}") int queueCapacity,
+      @Value("${user.password.hashing.timeout-ms:5000}") long timeoutMillis) {
+    this.passwordEncoder = passwordEncoder;
+    this.timeoutMillis = timeoutMillis;
+
+    int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    AtomicInteger contador = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        r -> {
+          Thread t = new Thread(r, "password-hashing-" + contador.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        },
+        new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("user.password.hashing.queue.size", executor, e -> e.getQueue().size())
+        .description("Hashes aguardando na fila do executor de BCrypt")
+        .register(meterRegistry);
+    Gauge.builder("user.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(meterRegistry);
+    this.hashTimer = Timer.builder("user.password.hashing.duration")
+        .description("Tempo de espera na fila + cálculo do hash")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+    this.rejeitados = Counter.builder("user.password.hashing.rejected")
+        .register(meterRegistry);
+  }
+
+  public String hash(String rawPassword) {
+    return run(() -> passwordEncoder.encode(rawPassword));
+  }
+
+  // Verificação no login: mesmo custo do BCrypt, então passa pelo mesmo pool limitado
+  public boolean matches(String rawPassword, String passwordHash) {
+    return run(() -> passwordEncoder.matches(rawPassword, passwordHash));
+  }
+
+  private <T> T run(Callable<T> tarefa) {
+    long inicio = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(tarefa);
+    } catch (RejectedExecutionException e) {
+      rejeitados.increment();
+      throw new HashingOverloadedException("Serviço de senhas sobrecarregado, tente novamente");
+    }
+
+    try {
+      return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      rejeitados.increment();
+      throw new HashingOverloadedException("Tempo esgotado aguardando o hash da senha");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrompido aguardando o hash da senha", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Falha ao calcular hash da senha", e.getCause());
+    } finally {
+      hashTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Gera os hashes de um lote em paralelo, usando todos os núcleos do pool.
+   * Mantém no máximo um hash em voo por thread, para que o lote não ocupe a fila
+   * e não provoque 503 nas requisições individuais que chegarem no meio tempo.
+   */
+  public List<String> hashAll(List<String> rawPasswords) {
+    int janela = executor.getMaximumPoolSize();
+    List<String> hashes = new ArrayList<>(rawPasswords.size());
+    Deque<Future<String>> emVoo = new ArrayDeque<>(janela);
+    try {
+      for (String rawPassword : rawPasswords) {
+        if (emVoo.size() >= janela) {
+          hashes.add(emVoo.removeFirst().get());
+        }
+        emVoo.addLast(submitBlocking(rawPassword));
+      }
+      while (!emVoo.isEmpty()) {
+        hashes.add(emVoo.removeFirst().get());
+      }
+      return hashes;
+    } catch (InterruptedException e) {
+      emVoo.forEach(f -> f.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrompido aguardando o hash das senhas", e);
+    } catch (ExecutionException e) {
+      emVoo.forEach(f -> f.cancel(true));
+      throw new IllegalStateException("Falha ao gerar hash da senha", e.getCause());
+    }
+  }
+
+  private Future<String> submitBlocking(String rawPassword) throws InterruptedException {
+    while (true) {
+      try {
+        long inicio = System.nanoTime();
+        return executor.submit(() -> {
+          String hash = passwordEncoder.encode(rawPassword);
+          hashTimer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+          return hash;
+        });
+      } catch (RejectedExecutionException e) {
+        // fila tomada por requisições individuais: o lote espera em vez de falhar
+        TimeUnit.MILLISECONDS.sleep(10);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+}
@@ -0,0 +1,222 @@
+package br.com.distrischool.user_service.service;
+
+import br.com.distrischool.user_service.domain.User;
+import br.com.distrischool.user_service.dto.BulkCreateUsersResponse;
+import br.com.distrischool.user_service.dto.BulkUserResult;
+import br.com.distrischool.user_service.dto.BulkUserResult.Status;
+import br.com.distrischool.user_service.dto.CreateUserRequest;
+import br.com.distrischool.user_service.exception.BatchTooLargeException;
+import br.com.distrischool.user_service.exception.UniqueConstraints;
+import br.com.distrischool.user_service.messaging.UserEventPublisher;
+import br.com.distrischool.user_service.messaging.dto.UserEventDTO;
+import br.com.distrischool.user_service.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Provisionamento de usuários em massa (início de semestre).
+ * Uma consulta de unicidade para o lote inteiro, hashes em paralelo, INSERTs em lotes JDBC
+ * e eventos user.created publicados juntos após o commit. Uma violação no INSERT afeta só os
+ * itens responsáveis: os demais são regravados.
+ */
+@Service
+public class UserProvisioningService {
+
+  private static final Logger log = LoggerFactory.getLogger(UserProvisioningService.class);
+
+  // lotes regravados após perder emails para cadastros concorrentes, antes de passar a um INSERT por usuário
+  private static final int MAX_TENTATIVAS_LOTE = 3;
+
+  private final UserRepository repository;
+  private final PasswordHashingService passwordHashing;
+  private final UserEventPublisher publisher;
+  private final TransactionTemplate transactionTemplate;
+  private final Validator validator;
+  private final int maxItems;
+
+  public UserProvisioningService(
+      UserRepository repository,
+      PasswordHashingService passwordHashing,
+      UserEventPublisher publisher,
+      TransactionTemplate transactionTemplate,
+      Validator validator,
+      @Value("${user.bulk.max-items:1000}") int maxItems) {
+    this.repository = repository;
+    this.passwordHashing = passwordHashing;
+    this.publisher = publisher;
+    this.transactionTemplate = transactionTemplate;
+    this.validator = validator;
+    this.maxItems = maxItems;
+  }
+
+  public BulkCreateUsersResponse createAll(List<CreateUserRequest> reqs) {
+    if (reqs.size() > maxItems) {
+      throw new BatchTooLargeException("Máximo de " + maxItems + " usuários por requisição, recebidos " + reqs.size());
+    }
+    List<BulkUserResult> results = new ArrayList<>(reqs.size());
+
+    // 1. validação por item + emails repetidos dentro do próprio lote
+    List<Integer> candidatos = new ArrayList<>();
+    Set<String> emailsNoLote = new HashSet<>();
+    for (int i = 0; i < reqs.size(); i++) {
+      CreateUserRequest req = reqs.get(i);
+      if (req == null) {
+        results.add(new BulkUserResult(i, null, Status.INVALID, null, "item nulo"));
+        continue;
+      }
+      Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(req);
+      if (!violations.isEmpty()) {
+        results.add(new BulkUserResult(i, req.email(), Status.INVALID, null, violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "))));
+      } else if (!emailsNoLote.add(req.email().toLowerCase(Locale.ROOT))) {
+        results.add(new BulkUserResult(i, req.email(), Status.CONFLICT, null, "Email repetido no lote: " + req.email()));
+      } else {
+        candidatos.add(i);
+      }
+    }
+
+    // 2. unicidade contra o banco numa única consulta
+    Set<String> existentes = emailsNoLote.isEmpty() ? Set.of() : repository.findExistingEmails(emailsNoLote);
+    List<Integer> aceitos = new ArrayList<>(candidatos.size());
+    for (int i : candidatos) {
+      String email = reqs.get(i).email();
+      if (existentes.contains(email.toLowerCase(Locale.ROOT))) {
+        results.add(new BulkUserResult(i, email, Status.CONFLICT, null, "Email já está em uso: " + email));
+      } else {
+        aceitos.add(i);
+      }
+    }
+
+    if (!aceitos.isEmpty()) {
+      results.addAll(insert(reqs, aceitos));
+    }
+
+    results.sort(Comparator.comparingInt(BulkUserResult::index));
+    int created = (int) results.stream().filter(r -> r.status() == Status.CREATED).count();
+    return new BulkCreateUsersResponse(created, results.size() - created, results);
+  }
+
+  private List<BulkUserResult> insert(List<CreateUserRequest> reqs, List<Integer> aceitos) {
+    // 3. hashes em paralelo, fora da transação
+    List<String> hashes = passwordHashing.hashAll(aceitos.stream().map(i -> reqs.get(i).password()).toList());
+
+    List<Item> pendentes = new ArrayList<>(aceitos.size());
+    for (int k = 0; k < aceitos.size(); k++) {
+      CreateUserRequest req = reqs.get(aceitos.get(k));
+      User u = new User();
+      u.setName(req.name());
+      u.setEmail(req.email());
+      u.setRole(req.role());
+      u.setPasswordHash(hashes.get(k));
+      pendentes.add(new Item(aceitos.get(k), u));
+    }
+
+    // 4. INSERTs em lotes JDBC (ids pré-alocados pela sequence). Se um cadastro concorrente levar
+    // algum email, só esses itens viram CONFLICT e o resto do lote é regravado com os mesmos hashes
+    List<BulkUserResult> results = new ArrayList<>(aceitos.size());
+    List<Item> gravados = new ArrayList<>(aceitos.size());
+    for (int tentativa = 1; !pendentes.isEmpty(); tentativa++) {
+      List<Item> lote = pendentes;
+      try {
+        transactionTemplate.executeWithoutResult(status -> {
+          repository.saveAll(lote.stream().map(Item::user).toList());
+          repository.flush();
+        });
+        gravados.addAll(lote);
+        break;
+      } catch (DataIntegrityViolationException e) {
+        // o lote foi desfeito: os ids atribuídos não existem no banco
+        lote.forEach(item -> item.user().setId(null));
+        List<Item> restantes = UniqueConstraints.violates(e, UniqueConstraints.USERS_EMAIL)
+            ? withoutTakenEmails(lote, results)
+            : lote;
+        if (restantes.size() == lote.size() || tentativa == MAX_TENTATIVAS_LOTE) {
+          // outra violação, ou o email em disputa ainda não está visível (transação concorrente em aberto)
+          gravados.addAll(insertOneByOne(restantes, results));
+          break;
+        }
+        pendentes = restantes;
+      }
+    }
+
+    // 5. eventos após o commit, num único canal
+    if (!gravados.isEmpty()) {
+      try {
+        publisher.publishAll("user.created", gravados.stream()
+            .map(Item::user)
+            .map(u -> UserEventDTO.builder()
+                .id(u.getId())
+                .name(u.getName())
+                .email(u.getEmail())
+                .role(u.getRole().name())
+                .type("CREATED")
+                .build())
+            .toList());
+      } catch (AmqpException e) {
+        // os usuários já foram gravados; a falha no broker não desfaz o provisionamento
+        log.error("Falha ao publicar {} eventos user.created do lote", gravados.size(), e);
+      }
+    }
+
+    for (Item item : gravados) {
+      results.add(new BulkUserResult(item.index(), item.user().getEmail(), Status.CREATED, item.user().getId(), null));
+    }
+    return results;
+  }
+
+  // Relê a unicidade dos emails do lote recusado; os já gravados por outro cadastro viram CONFLICT
+  private List<Item> withoutTakenEmails(List<Item> lote, List<BulkUserResult> results) {
+    Set<String> existentes = repository.findExistingEmails(lote.stream()
+        .map(item -> item.user().getEmail().toLowerCase(Locale.ROOT))
+        .collect(Collectors.toSet()));
+    List<Item> restantes = new ArrayList<>(lote.size());
+    for (Item item : lote) {
+      String email = item.user().getEmail();
+      if (existentes.contains(email.toLowerCase(Locale.ROOT))) {
+        results.add(new BulkUserResult(item.index(), email, Status.CONFLICT, null, "Email já está em uso: " + email));
+      } else {
+        restantes.add(item);
+      }
+    }
+    return restantes;
+  }
+
+  // Último recurso: uma transação por usuário, para que só os itens recusados falhem
+  private List<Item> insertOneByOne(List<Item> itens, List<BulkUserResult> results) {
+    List<Item> gravados = new ArrayList<>(itens.size());
+    for (Item item : itens) {
+      try {
+        transactionTemplate.executeWithoutResult(status -> repository.saveAndFlush(item.user()));
+        gravados.add(item);
+      } catch (DataIntegrityViolationException e) {
+        item.user().setId(null);
+        String email = item.user().getEmail();
+        if (UniqueConstraints.violates(e, UniqueConstraints.USERS_EMAIL)) {
+          results.add(new BulkUserResult(item.index(), email, Status.CONFLICT, null, "Email já está em uso: " + email));
+        } else {
+          results.add(new BulkUserResult(item.index(), email, Status.ERROR, null,
+              "Rejeitado pelo banco: " + e.getMostSpecificCause().getMessage()));
+        }
+      }
+    }
+    return gravados;
+  }
+
+  private record Item(int index, User user) {}
+}
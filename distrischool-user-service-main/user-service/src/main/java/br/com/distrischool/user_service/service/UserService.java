@@ -1,42 +1,64 @@
 package br.com.distrischool.user_service.service;
 
 import br.com.distrischool.user_service.domain.User;
+import br.com.distrischool.user_service.dto.BatchResponse;
 import br.com.distrischool.user_service.dto.CreateUserRequest;
+import br.com.distrischool.user_service.dto.CursorPage;
 import br.com.distrischool.user_service.dto.UpdateUserRequest;
 import br.com.distrischool.user_service.dto.UserResponse;
+import br.com.distrischool.user_service.exception.BatchTooLargeException;
 import br.com.distrischool.user_service.exception.EmailAlreadyUsedException;
 import br.com.distrischool.user_service.exception.ResourceNotFoundException;
+import br.com.distrischool.user_service.exception.UniqueConstraints;
 import br.com.distrischool.user_service.messaging.UserEventPublisher;
 import br.com.distrischool.user_service.messaging.dto.UserEventDTO;
 import br.com.distrischool.user_service.repository.UserRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+  private static final Set<String> SORTABLE = Set.of("id", "name", "createdAt");
+  private static final int DEFAULT_PAGE_SIZE = 50;
+  private static final int MAX_PAGE_SIZE = 500;
+  private static final int MAX_IDS = 500;
+
   private final UserRepository repository;
-  private final PasswordEncoder passwordEncoder;
+  private final PasswordHashingService passwordHashing;
   private final UserEventPublisher publisher;
+  private final TransactionTemplate transactionTemplate;
 
-  @Transactional
+  // O hash (BCrypt) roda antes da transação, para não segurar conexão do pool enquanto espera.
+  // Email duplicado é detectado pelo índice único uk_users_email no próprio INSERT.
   public UserResponse create(CreateUserRequest req) {
-    if (repository.existsByEmail(req.email())) {
-      throw new EmailAlreadyUsedException("Email já está em uso: " + req.email());
-    }
+    String passwordHash = passwordHashing.hash(req.password()); // BCrypt
+    return uniqueEmail(req.email(), () -> transactionTemplate.execute(status -> insert(req, passwordHash)));
+  }
 
+  private UserResponse insert(CreateUserRequest req, String passwordHash) {
     User u = new User();
     u.setName(req.name());
     u.setEmail(req.email());
     u.setRole(req.role());
-    u.setPasswordHash(passwordEncoder.encode(req.password())); // BCrypt
+    u.setPasswordHash(passwordHash);
 
-    repository.save(u);
+    repository.saveAndFlush(u);
 
     // Evento: USER CREATED
     publisher.publish("user.created",
@@ -59,13 +81,45 @@ public class UserService {
     return toResponse(u);
   }
 
+  // Uma única consulta IN para todos os ids; resultado na ordem pedida
+  @Transactional(readOnly = true)
+  public BatchResponse<UserResponse> getByIds(List<Long> ids) {
+    List<Long> requested = ids.stream().distinct().toList();
+    if (requested.size() > MAX_IDS) {
+      throw new BatchTooLargeException("Máximo de " + MAX_IDS + " ids por requisição, recebidos " + requested.size());
+    }
+    Map<Long, User> found = repository.findAllById(requested).stream()
+        .collect(Collectors.toMap(User::getId, Function.identity()));
+    return new BatchResponse<>(
+        requested.stream().filter(found::containsKey).map(id -> toResponse(found.get(id))).toList(),
+        requested.stream().filter(id -> !found.containsKey(id)).toList());
+  }
+
   @Transactional(readOnly = true)
   public Page<UserResponse> list(Pageable pageable) {
     return repository.findAll(pageable).map(this::toResponse);
   }
 
-  @Transactional
+  // Listagem por cursor: custo constante por página, sem COUNT
+  @Transactional(readOnly = true)
+  public CursorPage<UserResponse> scroll(String cursor, String sort, Integer size) {
+    KeysetCursor.Position position = KeysetCursor.parse(cursor, sort, SORTABLE);
+    int pageSize = size == null || size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    Window<User> window = repository.findAllBy(position.scrollPosition(), position.sort(), Limit.of(pageSize));
+    String nextCursor = window.hasNext()
+        ? KeysetCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), position.sort())
+        : null;
+    return new CursorPage<>(window.map(this::toResponse).getContent(), nextCursor);
+  }
+
   public UserResponse update(Long id, UpdateUserRequest req) {
+    String passwordHash = req.password() != null && !req.password().isBlank()
+        ? passwordHashing.hash(req.password()) // re-hash se trocar
+        : null;
+    return uniqueEmail(req.email(), () -> transactionTemplate.execute(status -> applyUpdate(id, req, passwordHash)));
+  }
+
+  private UserResponse applyUpdate(Long id, UpdateUserRequest req, String passwordHash) {
     User u = repository.findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Usuário não encontrado: id=" + id));
 
@@ -74,9 +128,6 @@ public class UserService {
     }
 
     if (req.email() != null) {
-      if (!req.email().equals(u.getEmail()) && repository.existsByEmail(req.email())) {
-        throw new EmailAlreadyUsedException("Email já está em uso: " + req.email());
-      }
       u.setEmail(req.email());
     }
 
@@ -84,11 +135,11 @@ public class UserService {
       u.setRole(req.role());
     }
 
-    if (req.password() != null && !req.password().isBlank()) {
-      u.setPasswordHash(passwordEncoder.encode(req.password())); // re-hash se trocar
+    if (passwordHash != null) {
+      u.setPasswordHash(passwordHash);
     }
 
-    // Evento: USER UPDATED
+    // Evento: USER UPDATED (enviado só após o commit, ver UserEventPublisher)
     publisher.publish("user.updated",
         UserEventDTO.builder()
             .id(u.getId())
@@ -118,6 +169,17 @@ public class UserService {
     );
   }
 
+  private UserResponse uniqueEmail(String email, Supplier<UserResponse> operation) {
+    try {
+      return operation.get();
+    } catch (DataIntegrityViolationException e) {
+      if (UniqueConstraints.violates(e, UniqueConstraints.USERS_EMAIL)) {
+        throw new EmailAlreadyUsedException("Email já está em uso: " + email);
+      }
+      throw e;
+    }
+  }
+
   private UserResponse toResponse(User u) {
     return new UserResponse(
         u.getId(),
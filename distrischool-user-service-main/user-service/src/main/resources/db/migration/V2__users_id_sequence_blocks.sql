@@ -0,0 +1,3 @@
+-- Ids reservados em blocos de 50 (otimizador pooled do Hibernate),
+-- o que permite agrupar os INSERTs do provisionamento em massa em lotes JDBC.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
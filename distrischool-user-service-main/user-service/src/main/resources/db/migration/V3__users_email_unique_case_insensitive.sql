@@ -0,0 +1,4 @@
+-- Unicidade de email sem diferenciar maiúsculas/minúsculas.
+-- O índice funcional substitui a constraint UNIQUE original e é ele que detecta emails duplicados no INSERT.
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+CREATE UNIQUE INDEX uk_users_email ON users (lower(email));
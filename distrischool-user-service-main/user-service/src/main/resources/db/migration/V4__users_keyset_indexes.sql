@@ -0,0 +1,3 @@
+-- Índices para GET /users/scroll: cada ordenação permitida é (chave, id)
+CREATE INDEX idx_users_name_id ON users (name, id);
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
@@ -0,0 +1,37 @@
+package br.com.distrischool.user_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.mock.env.MockEnvironment;
+
+class JwtConfigTest {
+
+  private final JwtConfig config = new JwtConfig();
+
+  @Test
+  void semChaveConfiguradaForaDeDevFalhaNoStartup() {
+    MockEnvironment environment = new MockEnvironment();
+    environment.setActiveProfiles("prod");
+
+    assertThatThrownBy(() -> config.tokenSigningKey("", new DefaultResourceLoader(), environment))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("user.auth.jwt.private-key-location");
+    assertThatThrownBy(() -> config.tokenSigningKey("", new DefaultResourceLoader(), new MockEnvironment()))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void perfilDevUsaChaveTemporaria() throws Exception {
+    MockEnvironment environment = new MockEnvironment();
+    environment.setActiveProfiles("dev");
+
+    RSAKey key = config.tokenSigningKey("", new DefaultResourceLoader(), environment);
+
+    assertThat(key.isPrivate()).isTrue();
+    assertThat(key.getKeyID()).isEqualTo(key.computeThumbprint().toString());
+  }
+}
@@ -0,0 +1,160 @@
+package br.com.distrischool.user_service.messaging;
+
+import static br.com.distrischool.user_service.config.RabbitConfig.EXCHANGE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import br.com.distrischool.user_service.messaging.dto.UserEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+class UserEventPublisherTest {
+
+  private final RabbitTemplate rabbit = mock(RabbitTemplate.class);
+  private final RabbitOperations ops = mock(RabbitOperations.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private UserEventPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    // invoke roda o callback com as operações do canal
+    doAnswer(inv -> inv.<RabbitTemplate.OperationsCallback<?>>getArgument(0).doInRabbit(ops))
+        .when(rabbit).invoke(any());
+    publisher = new UserEventPublisher(rabbit, meterRegistry, 500);
+  }
+
+  @Test
+  void createdSeguidoDeUpdatedSaiComoUmCreatedComOEstadoMaisRecente() {
+    publisher.publish("user.created", event(1L, "Ana", "CREATED"));
+    publisher.publish("user.updated", event(1L, "Ana Souza", "UPDATED"));
+
+    publisher.flush();
+
+    List<Enviado> enviados = enviados(1);
+    assertThat(enviados.get(0).routingKey()).isEqualTo("user.created");
+    assertThat(enviados.get(0).event().getType()).isEqualTo("CREATED");
+    assertThat(enviados.get(0).event().getName()).isEqualTo("Ana Souza");
+    assertThat(meterRegistry.counter("user.events.coalesced").count()).isEqualTo(1);
+  }
+
+  @Test
+  void criadoERemovidoNaMesmaJanelaNaoPublicaNada() {
+    publisher.publish("user.created", event(1L, "Ana", "CREATED"));
+    publisher.publish("user.updated", event(1L, "Ana Souza", "UPDATED"));
+    publisher.publish("user.deleted", event(1L, "Ana Souza", "DELETED"));
+    publisher.publish("user.created", event(2L, "Bruno", "CREATED"));
+
+    publisher.flush();
+
+    assertThat(enviados(1)).extracting(e -> e.event().getId(), e -> e.event().getType())
+        .containsExactly(tuple(2L, "CREATED"));
+    assertThat(meterRegistry.counter("user.events.coalesced").count()).isEqualTo(3);
+  }
+
+  @Test
+  void removidoDepoisDeUmCreatedJaEnviadoPublicaODeleted() {
+    publisher.publish("user.created", event(1L, "Ana", "CREATED"));
+    publisher.flush();
+    publisher.publish("user.deleted", event(1L, "Ana", "DELETED"));
+    publisher.flush();
+
+    assertThat(enviados(2)).extracting(Enviado::routingKey).containsExactly("user.created", "user.deleted");
+  }
+
+  @Test
+  void updatesSeguidosFicamSoComOUltimo() {
+    publisher.publish("user.updated", event(1L, "Ana", "UPDATED"));
+    publisher.publish("user.updated", event(1L, "Ana Souza", "UPDATED"));
+    publisher.publish("user.deleted", event(2L, "Bruno", "DELETED"));
+
+    publisher.flush();
+
+    assertThat(enviados(2)).extracting(e -> e.event().getId(), e -> e.event().getType(), e -> e.event().getName())
+        .containsExactly(tuple(1L, "UPDATED", "Ana Souza"), tuple(2L, "DELETED", "Bruno"));
+  }
+
+  @Test
+  void usuariosDiferentesMantemAOrdemDeChegada() {
+    publisher.publish("user.created", event(3L, "Carla", "CREATED"));
+    publisher.publish("user.created", event(1L, "Ana", "CREATED"));
+    publisher.publish("user.updated", event(3L, "Carla Dias", "UPDATED"));
+    publisher.publish("user.created", event(2L, "Bruno", "CREATED"));
+
+    publisher.flush();
+
+    assertThat(enviados(3)).extracting(e -> e.event().getId()).containsExactly(3L, 1L, 2L);
+    assertThat(meterRegistry.counter("user.events.published").count()).isEqualTo(3);
+  }
+
+  @Test
+  void falhaDeEnvioDevolveOsEventosParaAProximaJanela() {
+    doThrow(new AmqpConnectException(new ConnectException("recusada")))
+        .doAnswer(inv -> inv.<RabbitTemplate.OperationsCallback<?>>getArgument(0).doInRabbit(ops))
+        .when(rabbit).invoke(any());
+
+    publisher.publish("user.created", event(1L, "Ana", "CREATED"));
+    publisher.flush();
+    verify(ops, never()).convertAndSend(anyString(), anyString(), any(Object.class));
+
+    // chegou durante a falha: continua valendo o created, com o estado novo
+    publisher.publish("user.updated", event(1L, "Ana Souza", "UPDATED"));
+    publisher.flush();
+
+    List<Enviado> enviados = enviados(1);
+    assertThat(enviados.get(0).routingKey()).isEqualTo("user.created");
+    assertThat(enviados.get(0).event().getName()).isEqualTo("Ana Souza");
+  }
+
+  @Test
+  void lotesDeMaxBatchEventos() {
+    publisher = new UserEventPublisher(rabbit, meterRegistry, 2);
+
+    publisher.publish("user.created", event(1L, "Ana", "CREATED"));
+    // a janela enche: envia sem esperar o flush agendado
+    publisher.publish("user.created", event(2L, "Bruno", "CREATED"));
+    verify(rabbit, times(1)).invoke(any());
+
+    publisher.publish("user.created", event(3L, "Carla", "CREATED"));
+    publisher.flush();
+
+    assertThat(enviados(3)).extracting(e -> e.event().getId()).containsExactly(1L, 2L, 3L);
+  }
+
+  private List<Enviado> enviados(int quantidade) {
+    ArgumentCaptor<String> routingKeys = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+    verify(ops, times(quantidade)).convertAndSend(eq(EXCHANGE), routingKeys.capture(), events.capture());
+    return IntStream.range(0, quantidade)
+        .mapToObj(i -> new Enviado(routingKeys.getAllValues().get(i), (UserEventDTO) events.getAllValues().get(i)))
+        .toList();
+  }
+
+  private static UserEventDTO event(Long id, String name, String type) {
+    return UserEventDTO.builder()
+        .id(id)
+        .name(name)
+        .email(name.toLowerCase().replace(' ', '.') + "@distrischool.com")
+        .role("STUDENT")
+        .type(type)
+        .build();
+  }
+
+  private record Enviado(String routingKey, UserEventDTO event) {}
+}
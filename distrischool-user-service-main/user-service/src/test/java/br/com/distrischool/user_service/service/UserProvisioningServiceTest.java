@@ -0,0 +1,128 @@
+package br.com.distrischool.user_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import br.com.distrischool.user_service.domain.Role;
+import br.com.distrischool.user_service.domain.User;
+import br.com.distrischool.user_service.dto.BulkCreateUsersResponse;
+import br.com.distrischool.user_service.dto.BulkUserResult;
+import br.com.distrischool.user_service.dto.BulkUserResult.Status;
+import br.com.distrischool.user_service.dto.CreateUserRequest;
+import br.com.distrischool.user_service.messaging.UserEventPublisher;
+import br.com.distrischool.user_service.repository.UserRepository;
+import jakarta.validation.Validation;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class UserProvisioningServiceTest {
+
+  private final UserRepository repository = mock(UserRepository.class);
+  private final PasswordHashingService passwordHashing = mock(PasswordHashingService.class);
+  private final UserEventPublisher publisher = mock(UserEventPublisher.class);
+  private final AtomicLong ids = new AtomicLong(100);
+  private UserProvisioningService service;
+
+  @BeforeEach
+  void setUp() {
+    when(passwordHashing.hashAll(anyList()))
+        .thenAnswer(inv -> inv.<List<String>>getArgument(0).stream().map(p -> "hash:" + p).toList());
+    service = new UserProvisioningService(repository, passwordHashing, publisher,
+        new TransactionTemplate(mock(PlatformTransactionManager.class)),
+        Validation.buildDefaultValidatorFactory().getValidator(), 1000);
+  }
+
+  @Test
+  void emailLevadoPorCadastroConcorrenteSoMarcaOProprioItem() {
+    when(repository.findExistingEmails(anyCollection())).thenReturn(Set.of()).thenReturn(Set.of("b@x.com"));
+    when(repository.saveAll(anyList()))
+        .thenThrow(emailDuplicado())
+        .thenAnswer(this::assignIds);
+
+    BulkCreateUsersResponse response = service.createAll(List.of(req("a@x.com"), req("B@x.com"), req("c@x.com")));
+
+    assertThat(response.results()).extracting(BulkUserResult::index, BulkUserResult::status).containsExactly(
+        tuple(0, Status.CREATED), tuple(1, Status.CONFLICT), tuple(2, Status.CREATED));
+    assertThat(response.created()).isEqualTo(2);
+    // os hashes do lote recusado são reaproveitados
+    verify(passwordHashing, times(1)).hashAll(anyList());
+    verify(publisher).publishAll(eq("user.created"),
+        argThat(eventos -> eventos.size() == 2));
+  }
+
+  @Test
+  void conflitoAindaInvisivelCaiParaUmInsertPorUsuario() {
+    // o outro cadastro ainda não fez commit: a releitura não encontra o email
+    when(repository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+    when(repository.saveAll(anyList())).thenThrow(emailDuplicado());
+    when(repository.saveAndFlush(any(User.class))).thenAnswer(inv -> {
+      User u = inv.getArgument(0);
+      if (u.getEmail().equals("b@x.com")) {
+        throw emailDuplicado();
+      }
+      u.setId(ids.incrementAndGet());
+      return u;
+    });
+
+    BulkCreateUsersResponse response = service.createAll(List.of(req("a@x.com"), req("b@x.com"), req("c@x.com")));
+
+    assertThat(response.results()).extracting(BulkUserResult::index, BulkUserResult::status).containsExactly(
+        tuple(0, Status.CREATED), tuple(1, Status.CONFLICT), tuple(2, Status.CREATED));
+    assertThat(response.results().get(0).id()).isNotNull();
+    assertThat(response.results().get(1).id()).isNull();
+  }
+
+  @Test
+  void outraViolacaoMarcaSoOItemQueFalhaComoErro() {
+    when(repository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+    when(repository.saveAll(anyList()))
+        .thenThrow(new DataIntegrityViolationException("x", new SQLException("value too long for type character varying(120)")));
+    when(repository.saveAndFlush(any(User.class))).thenAnswer(inv -> {
+      User u = inv.getArgument(0);
+      if (u.getEmail().equals("a@x.com")) {
+        throw new DataIntegrityViolationException("x", new SQLException("value too long for type character varying(120)"));
+      }
+      u.setId(ids.incrementAndGet());
+      return u;
+    });
+
+    BulkCreateUsersResponse response = service.createAll(List.of(req("a@x.com"), req("b@x.com")));
+
+    assertThat(response.results()).extracting(BulkUserResult::index, BulkUserResult::status).containsExactly(
+        tuple(0, Status.ERROR), tuple(1, Status.CREATED));
+    // sem releitura: a violação não é de email
+    verify(repository, times(1)).findExistingEmails(anyCollection());
+  }
+
+  private Object assignIds(InvocationOnMock inv) {
+    List<User> users = inv.getArgument(0);
+    users.forEach(u -> u.setId(ids.incrementAndGet()));
+    return users;
+  }
+
+  private static DataIntegrityViolationException emailDuplicado() {
+    return new DataIntegrityViolationException("duplicate",
+        new SQLException("ERROR: duplicate key value violates unique constraint \"uk_users_email\""));
+  }
+
+  private static CreateUserRequest req(String email) {
+    return new CreateUserRequest("Usuário " + email, email, "senha-forte", Role.STUDENT);
+  }
+}
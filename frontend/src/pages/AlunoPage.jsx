@@ -4,7 +4,9 @@ import './ProfessorPage.css';
 
 function AlunoPage() {
   const [alunos, setAlunos] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState(null);
   const [showForm, setShowForm] = useState(false);
   const [formData, setFormData] = useState({
@@ -29,8 +31,9 @@ function AlunoPage() {
   const fetchAlunos = async () => {
     try {
       setLoading(true);
-      const data = await alunoService.getAll();
-      setAlunos(Array.isArray(data) ? data : []);
+      const page = await alunoService.getAll();
+      setAlunos(page.content);
+      setNextCursor(page.nextCursor);
       setError(null);
     } catch (err) {
       setError(err.message);
@@ -40,6 +43,20 @@ function AlunoPage() {
     }
   };
 
+  const fetchMoreAlunos = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await alunoService.getAll(nextCursor);
+      setAlunos((prev) => [...prev, ...page.content]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      setError(err.message);
+      console.error('Erro ao buscar mais alunos:', err);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const handleSubmit = async (e) => {
     e.preventDefault();
     try {
@@ -290,6 +307,11 @@ function AlunoPage() {
       )}
 
       <div className="page-actions">
+        {nextCursor !== null && (
+          <button onClick={fetchMoreAlunos} className="btn-primary" disabled={loadingMore}>
+            {loadingMore ? 'Carregando...' : '⬇️ Carregar Mais'}
+          </button>
+        )}
         <button onClick={fetchAlunos} className="btn-secondary">
           🔄 Atualizar Lista
         </button>
@@ -5,10 +5,13 @@ import { api } from './api';
  */
 export const alunoService = {
   /**
-   * Get all alunos
+   * Get one page of alunos (cursor-paginated).
+   * Pass the returned nextCursor to get the following page; it is null on the last one.
    */
-  async getAll() {
-    return await api.get('/alunos');
+  async getAll(cursor) {
+    const query = cursor ? `?cursor=${cursor}` : '';
+    const data = await api.get(`/alunos${query}`);
+    return { content: data.content || [], nextCursor: data.nextCursor ?? null };
   },
 
   /**
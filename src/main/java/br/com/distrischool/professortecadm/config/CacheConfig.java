@@ -0,0 +1,32 @@
+package br.com.distrischool.professortecadm.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Invalidação do cache de segundo nível entre instâncias. As regiões e seus limites (TTL, tamanho)
+ * estão em hibernate-cache.conf.
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String INVALIDATION_ROUTING_KEY = "professortecadm.cache.invalidate";
+
+    // Fila exclusiva de cada instância: toda instância recebe todas as invalidações
+    @Bean
+    public Queue staffCacheInvalidationQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding staffCacheInvalidationBinding(Queue staffCacheInvalidationQueue, TopicExchange distrischoolExchange) {
+        return BindingBuilder.bind(staffCacheInvalidationQueue)
+                .to(distrischoolExchange)
+                .with(INVALIDATION_ROUTING_KEY);
+    }
+}
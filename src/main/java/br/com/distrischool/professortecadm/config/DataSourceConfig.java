@@ -0,0 +1,95 @@
+package br.com.distrischool.professortecadm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Roteamento primário/réplicas. O DataSource exposto à aplicação (JPA, Flyway) só obtém a conexão
+ * física no primeiro comando SQL, quando já se sabe se a transação é readOnly: as readOnly vão para
+ * o {@link ReadReplicaDataSource}; as demais, para o primário.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicaDataSource readReplicaDataSource(HikariDataSource primaryDataSource,
+                                                       DataSourceProperties primaryProperties,
+                                                       ReadReplicaProperties properties,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.nodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.nodes().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.url());
+            replica.setUsername(node.username() != null ? node.username() : primaryProperties.determineUsername());
+            replica.setPassword(node.password() != null ? node.password() : primaryProperties.determinePassword());
+            replica.setDriverClassName(primaryProperties.determineDriverClassName());
+            replica.setMaximumPoolSize(properties.maxPoolSize());
+            replica.setReadOnly(true);
+            // não bloqueia o startup se a réplica estiver fora; o health check a retira do rodízio
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replica);
+        }
+        return new ReadReplicaDataSource(primaryDataSource, replicas, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource readReplicaDataSource) {
+        DataSource escrita = new DelegatingDataSource(primaryDataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                ReadReplicaDataSource.markWrite();
+                return super.getConnection();
+            }
+        };
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(escrita);
+        proxy.setReadOnlyDataSource(readReplicaDataSource);
+        // padrões do Hikari/PostgreSQL, para o proxy não abrir uma conexão só para descobri-los
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
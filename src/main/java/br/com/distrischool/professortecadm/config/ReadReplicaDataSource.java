@@ -0,0 +1,148 @@
+package br.com.distrischool.professortecadm.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Destino das transações readOnly: distribui as conexões entre as réplicas saudáveis (round-robin),
+ * cada uma com seu próprio pool. Réplicas que falham ao conectar ou ficam atrasadas além de maxLag
+ * saem do rodízio até a próxima verificação bem-sucedida; sem nenhuma disponível, usa o primário.
+ *
+ * Leitura após escrita: depois que a requisição atual usou o primário para escrever, as leituras
+ * seguintes dela continuam no primário (ver {@link ReadYourWritesFilter}).
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    // atraso de replicação; zero quando tudo o que foi recebido já foi aplicado (ou quando não é standby)
+    private static final String LAG_QUERY = """
+            SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                                 ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0)
+            """;
+
+    // null = fora de requisição; FALSE = requisição sem escrita; TRUE = já escreveu no primário
+    private static final ThreadLocal<Boolean> ESCREVEU = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long maxLagSeconds;
+    private final AtomicInteger proxima = new AtomicInteger();
+    private final ScheduledExecutorService healthCheck;
+
+    public ReadReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, ReadReplicaProperties properties) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagSeconds = properties.maxLag().toSeconds();
+        this.healthCheck = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "read-replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        if (!this.replicas.isEmpty()) {
+            long intervalo = properties.healthCheckInterval().toMillis();
+            healthCheck.scheduleWithFixedDelay(this::checkReplicas, 0, intervalo, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    static void beginRequest() {
+        ESCREVEU.set(Boolean.FALSE);
+    }
+
+    static void endRequest() {
+        ESCREVEU.remove();
+    }
+
+    // Chamado quando a requisição obtém uma conexão de escrita do primário
+    static void markWrite() {
+        if (ESCREVEU.get() != null) {
+            ESCREVEU.set(Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (Boolean.TRUE.equals(ESCREVEU.get())) {
+            return primary.getConnection();
+        }
+        int n = replicas.size();
+        int inicio = Math.floorMod(proxima.getAndIncrement(), Math.max(n, 1));
+        for (int i = 0; i < n; i++) {
+            Replica replica = replicas.get((inicio + i) % n);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown("falha ao conectar: " + e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Credenciais são configuradas por réplica");
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection con = replica.dataSource.getConnection();
+                 Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery(LAG_QUERY)) {
+                rs.next();
+                double atraso = rs.getDouble(1);
+                if (atraso > maxLagSeconds) {
+                    replica.markDown(String.format("atraso de replicação de %.1fs", atraso));
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.markDown("verificação falhou: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthCheck.shutdownNow();
+        replicas.forEach(r -> r.dataSource.close());
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markDown(String motivo) {
+            if (healthy) {
+                log.warn("Réplica {} removida do rodízio de leitura: {}", dataSource.getPoolName(), motivo);
+            }
+            healthy = false;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                log.info("Réplica {} de volta ao rodízio de leitura", dataSource.getPoolName());
+            }
+            healthy = true;
+        }
+    }
+}
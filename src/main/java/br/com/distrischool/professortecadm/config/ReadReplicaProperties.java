@@ -0,0 +1,22 @@
+package br.com.distrischool.professortecadm.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Réplicas de leitura (app.datasource.read-replicas.*). Sem nodes configurados tudo vai ao primário.
+ */
+@ConfigurationProperties("app.datasource.read-replicas")
+public record ReadReplicaProperties(
+        @DefaultValue List<Node> nodes,
+        @DefaultValue("10") int maxPoolSize,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("30s") Duration maxLag
+) {
+
+    public record Node(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.distrischool.professortecadm.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Delimita a requisição para a regra de leitura após escrita do {@link ReadReplicaDataSource}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadReplicaDataSource.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadReplicaDataSource.endRequest();
+        }
+    }
+}
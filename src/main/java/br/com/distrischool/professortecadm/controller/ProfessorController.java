@@ -9,6 +9,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/professores")
@@ -32,6 +33,34 @@ public class ProfessorController {
         return ResponseEntity.ok(service.list(pageable));
     }
 
+    // Busca múltipla: GET ?ids=1,2,3 (até 500), na ordem pedida, com os ids inexistentes em missing
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<ProfessorResponse>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
+    // Listagem por cursor, sem COUNT: passe o nextCursor recebido para obter a página seguinte
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProfessorResponse>> scroll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) String sort,
+                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(service.scroll(cursor, sort, size));
+    }
+
+    // Feed incremental: alterações e exclusões após o token since (sem since, sincronização completa)
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<ProfessorResponse>> changes(@RequestParam(required = false) String since,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.changesSince(since, limit));
+    }
+
+    // Busca por prefixo, sem acento e sem diferenciar maiúsculas; todos os termos precisam casar
+    @GetMapping("/search")
+    public ResponseEntity<List<ProfessorResponse>> search(@RequestParam String q,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.search(q, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProfessorResponse> get(@PathVariable Long id) {
         return ResponseEntity.ok(service.getById(id));
@@ -42,6 +71,12 @@ public class ProfessorController {
         return ResponseEntity.ok(service.update(id, req));
     }
 
+    // Exclusão em lote: responde com os ids removidos e os que não existiam
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@Valid @RequestBody BulkDeleteRequest req) {
+        return ResponseEntity.ok(service.deleteAll(req.ids()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
@@ -1,6 +1,11 @@
 package br.com.distrischool.professortecadm.controller;
 
+import br.com.distrischool.professortecadm.dto.BatchResponse;
+import br.com.distrischool.professortecadm.dto.BulkDeleteRequest;
+import br.com.distrischool.professortecadm.dto.BulkDeleteResponse;
+import br.com.distrischool.professortecadm.dto.ChangeFeed;
 import br.com.distrischool.professortecadm.dto.CreateTecnicoRequest;
+import br.com.distrischool.professortecadm.dto.CursorPage;
 import br.com.distrischool.professortecadm.dto.TecnicoAdministrativoResponse;
 import br.com.distrischool.professortecadm.dto.UpdateTecnicoRequest;
 import br.com.distrischool.professortecadm.service.TecnicoAdministrativoService;
@@ -11,6 +16,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.net.URI;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/tecnicos")
@@ -34,6 +40,34 @@ public class TecnicoAdministrativoController {
         return ResponseEntity.ok(service.list(pageable));
     }
 
+    // Busca múltipla: GET ?ids=1,2,3 (até 500), na ordem pedida, com os ids inexistentes em missing
+    @GetMapping(params = "ids")
+    public ResponseEntity<BatchResponse<TecnicoAdministrativoResponse>> getByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(service.getByIds(ids));
+    }
+
+    // Listagem por cursor, sem COUNT: passe o nextCursor recebido para obter a página seguinte
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<TecnicoAdministrativoResponse>> scroll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) String sort,
+                                                 @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(service.scroll(cursor, sort, size));
+    }
+
+    // Feed incremental: alterações e exclusões após o token since (sem since, sincronização completa)
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeed<TecnicoAdministrativoResponse>> changes(@RequestParam(required = false) String since,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.changesSince(since, limit));
+    }
+
+    // Busca por prefixo, sem acento e sem diferenciar maiúsculas; todos os termos precisam casar
+    @GetMapping("/search")
+    public ResponseEntity<List<TecnicoAdministrativoResponse>> search(@RequestParam String q,
+                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(service.search(q, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TecnicoAdministrativoResponse> get(@PathVariable Long id) {
         return ResponseEntity.ok(service.getById(id));
@@ -44,6 +78,12 @@ public class TecnicoAdministrativoController {
         return ResponseEntity.ok(service.update(id, req));
     }
 
+    // Exclusão em lote: responde com os ids removidos e os que não existiam
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> deleteAll(@Valid @RequestBody BulkDeleteRequest req) {
+        return ResponseEntity.ok(service.deleteAll(req.ids()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         service.delete(id);
@@ -0,0 +1,11 @@
+package br.com.distrischool.professortecadm.dto;
+
+import java.util.List;
+
+/**
+ * Busca múltipla por ids: encontrados na ordem pedida e ids inexistentes em missing.
+ */
+public record BatchResponse<T>(
+        List<T> content,
+        List<Long> missing
+) {}
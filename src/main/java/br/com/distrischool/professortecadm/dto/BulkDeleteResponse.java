@@ -0,0 +1,11 @@
+package br.com.distrischool.professortecadm.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma exclusão em lote: ids removidos e ids que não existiam.
+ */
+public record BulkDeleteResponse(
+        List<Long> deleted,
+        List<Long> notFound
+) {}
@@ -0,0 +1,20 @@
+package br.com.distrischool.professortecadm.dto;
+
+import java.util.List;
+
+/**
+ * Alterações após um watermark, em ordem. Para continuar, envie nextToken como since;
+ * hasMore indica que há mais alterações imediatamente disponíveis.
+ */
+public record ChangeFeed<T>(
+        List<Change<T>> changes,
+        String nextToken,
+        boolean hasMore
+) {
+
+    public enum Type { UPSERT, DELETE }
+
+    // data é nulo nas exclusões (tombstones)
+    public record Change<T>(Type type, Long id, T data) {
+    }
+}
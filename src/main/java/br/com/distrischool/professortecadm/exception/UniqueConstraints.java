@@ -0,0 +1,23 @@
+package br.com.distrischool.professortecadm.exception;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public final class UniqueConstraints {
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Indica se a violação de integridade veio da constraint (ou índice único) informada.
+     */
+    public static boolean violates(DataIntegrityViolationException ex, String constraintName) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return constraintName.equalsIgnoreCase(cve.getConstraintName());
+            }
+        }
+        String message = ex.getMostSpecificCause().getMessage();
+        return message != null && message.contains(constraintName);
+    }
+}
@@ -1,17 +1,52 @@
 package br.com.distrischool.professortecadm.messaging;
 
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 import static br.com.distrischool.professortecadm.config.RabbitConfig.EXCHANGE;
 
 @Component
 @RequiredArgsConstructor
 public class ProfessorEventPublisher {
+    private static final Logger log = LoggerFactory.getLogger(ProfessorEventPublisher.class);
+
     private final RabbitTemplate rabbitTemplate;
 
     public void publish(String routingKey, Object payload) {
         rabbitTemplate.convertAndSend(EXCHANGE, routingKey, payload);
     }
+
+    // Lote inteiro num único canal, após o commit da transação que o gerou
+    public void publishAll(String routingKey, List<?> payloads) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(routingKey, payloads);
+                }
+            });
+        } else {
+            send(routingKey, payloads);
+        }
+    }
+
+    private void send(String routingKey, List<?> payloads) {
+        try {
+            rabbitTemplate.invoke(ops -> {
+                payloads.forEach(payload -> ops.convertAndSend(EXCHANGE, routingKey, payload));
+                return null;
+            });
+        } catch (AmqpException e) {
+            // as exclusões já foram confirmadas; a falha no broker não as desfaz
+            log.error("Falha ao publicar {} eventos {}", payloads.size(), routingKey, e);
+        }
+    }
 }
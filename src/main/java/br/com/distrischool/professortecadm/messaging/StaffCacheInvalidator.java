@@ -0,0 +1,124 @@
+package br.com.distrischool.professortecadm.messaging;
+
+import br.com.distrischool.professortecadm.config.CacheConfig;
+import br.com.distrischool.professortecadm.messaging.dto.CacheInvalidationDTO;
+import br.com.distrischool.professortecadm.model.Professor;
+import br.com.distrischool.professortecadm.model.TecnicoAdministrativo;
+import br.com.distrischool.professortecadm.service.StaffSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static br.com.distrischool.professortecadm.config.RabbitConfig.EXCHANGE;
+
+/**
+ * Mantém o cache de segundo nível coerente entre instâncias. O Hibernate já atualiza o cache local
+ * nas escritas; as demais instâncias recebem, após o commit, os ids alterados pelo exchange de eventos
+ * e descartam as entradas deles (e atualizam o índice de busca).
+ */
+@Component
+public class StaffCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(StaffCacheInvalidator.class);
+
+    private static final Map<String, Class<?>> ENTITIES = Map.of(
+            "professor", Professor.class,
+            "tecnico", TecnicoAdministrativo.class);
+
+    // identifica as mensagens desta instância, que não precisa invalidar o próprio cache
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final RabbitTemplate rabbitTemplate;
+    private final SessionFactory sessionFactory;
+    private final StaffSearchIndex searchIndex;
+
+    public StaffCacheInvalidator(RabbitTemplate rabbitTemplate, EntityManagerFactory entityManagerFactory,
+                                 StaffSearchIndex searchIndex) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.searchIndex = searchIndex;
+    }
+
+    public void professoresChanged(Collection<Long> ids) {
+        afterCommit(new CacheInvalidationDTO(instanceId, "professor", List.copyOf(ids)));
+    }
+
+    public void tecnicosChanged(Collection<Long> ids) {
+        afterCommit(new CacheInvalidationDTO(instanceId, "tecnico", List.copyOf(ids)));
+    }
+
+    // Exclusões por SQL nativo: o Hibernate não atualiza nem o cache local, que também é invalidado
+    public void professoresDeleted(Collection<Long> ids) {
+        afterCommit(new CacheInvalidationDTO(instanceId, "professor", List.copyOf(ids)), true);
+    }
+
+    public void tecnicosDeleted(Collection<Long> ids) {
+        afterCommit(new CacheInvalidationDTO(instanceId, "tecnico", List.copyOf(ids)), true);
+    }
+
+    private void afterCommit(CacheInvalidationDTO invalidation) {
+        afterCommit(invalidation, false);
+    }
+
+    private void afterCommit(CacheInvalidationDTO invalidation, boolean local) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    if (local) {
+                        evict(invalidation);
+                    }
+                    broadcast(invalidation);
+                }
+            });
+        } else {
+            if (local) {
+                evict(invalidation);
+            }
+            broadcast(invalidation);
+        }
+    }
+
+    private void broadcast(CacheInvalidationDTO invalidation) {
+        try {
+            rabbitTemplate.convertAndSend(EXCHANGE, CacheConfig.INVALIDATION_ROUTING_KEY, invalidation);
+        } catch (AmqpException e) {
+            // as outras instâncias ficam com a entrada antiga até o TTL da região expirar
+            log.warn("Falha ao propagar invalidação de cache ({} {})", invalidation.entity(), invalidation.ids(), e);
+        }
+    }
+
+    @RabbitListener(queues = "#{staffCacheInvalidationQueue.name}")
+    public void onInvalidation(CacheInvalidationDTO invalidation) {
+        if (instanceId.equals(invalidation.origin())) {
+            return;
+        }
+        evict(invalidation);
+        if (invalidation.ids() != null) {
+            if ("professor".equals(invalidation.entity())) {
+                searchIndex.refreshProfessores(invalidation.ids());
+            } else if ("tecnico".equals(invalidation.entity())) {
+                searchIndex.refreshTecnicos(invalidation.ids());
+            }
+        }
+    }
+
+    private void evict(CacheInvalidationDTO invalidation) {
+        Class<?> entity = ENTITIES.get(invalidation.entity());
+        if (entity != null && invalidation.ids() != null) {
+            invalidation.ids().forEach(id -> sessionFactory.getCache().evictEntityData(entity, id));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.distrischool.professortecadm.messaging.dto;
+
+import java.util.List;
+
+public record CacheInvalidationDTO(
+        String origin,
+        String entity,
+        List<Long> ids
+) {}
@@ -4,10 +4,16 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 import java.time.LocalDate;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "professores")
 @Table(name = "professores")
 @Data
 @NoArgsConstructor
@@ -21,11 +27,17 @@ public class Professor {
     @Column(nullable = false)
     private String nome;
 
-    @Column(nullable = false, unique = true) 
+    // único sem diferenciar maiúsculas: índice funcional em lower(email) (V3)
+    @Column(nullable = false)
     private String email;
 
     private String especialidade;
 
     private LocalDate dataContratacao;
 
+    // Mantido pelo trigger staff_track_change (V5): posição da última alteração no feed de mudanças.
+    // Relido após cada escrita para que a entidade (e o cache L2) não fique com o valor antigo
+    @Generated(event = {EventType.INSERT, EventType.UPDATE})
+    @Column(name = "change_seq", insertable = false, updatable = false)
+    private Long changeSeq;
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package br.com.distrischool.professortecadm.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Registro de exclusão gravado pelo trigger staff_track_change, para o feed de mudanças.
+ */
+@Entity
+@Immutable
+@Table(name = "staff_tombstones")
+@Getter
+@NoArgsConstructor
+public class StaffTombstone {
+
+    public static final String PROFESSOR = "professor";
+    public static final String TECNICO = "tecnico";
+
+    @Id
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private String entity;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private OffsetDateTime deletedAt;
+}
@@ -0,0 +1,14 @@
+package br.com.distrischool.professortecadm.repository;
+
+import br.com.distrischool.professortecadm.model.StaffTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StaffTombstoneRepository extends JpaRepository<StaffTombstone, Long> {
+
+    List<StaffTombstone> findByEntityAndChangeSeqGreaterThanOrderByChangeSeq(String entity, long since, Limit limit);
+}
@@ -1,10 +1,28 @@
 package br.com.distrischool.professortecadm.repository;
 
 import br.com.distrischool.professortecadm.model.TecnicoAdministrativo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TecnicoAdministrativoRepository extends JpaRepository<TecnicoAdministrativo, Long> {
-    boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Keyset: WHERE (chave, id) > posição ORDER BY chave, id LIMIT n, sem COUNT
+    Window<TecnicoAdministrativo> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Feed de mudanças: usa o índice único em change_seq
+    List<TecnicoAdministrativo> findByChangeSeqGreaterThanOrderByChangeSeq(long since, Limit limit);
+
+    // Exclusão em lote num único comando; devolve só os ids que existiam.
+    // SQL nativo não passa pelo cache L2: quem chama precisa invalidá-lo
+    @Query(value = "DELETE FROM {h-schema}tecnicos_administrativos WHERE id = ANY(:ids) RETURNING id", nativeQuery = true)
+    List<Long> deleteAllByIdReturningIds(@Param("ids") Long[] ids);
+}
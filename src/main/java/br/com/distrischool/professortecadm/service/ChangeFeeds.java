@@ -0,0 +1,77 @@
+package br.com.distrischool.professortecadm.service;
+
+import br.com.distrischool.professortecadm.dto.ChangeFeed;
+import br.com.distrischool.professortecadm.exception.InvalidCursorException;
+import br.com.distrischool.professortecadm.model.StaffTombstone;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Monta o feed de mudanças a partir das linhas alteradas e das tombstones, intercalando as duas
+ * listas por change_seq. O token é o change_seq da última alteração entregue.
+ */
+final class ChangeFeeds {
+
+    static final int TAMANHO_PADRAO = 500;
+    static final int TAMANHO_MAXIMO = 2000;
+
+    private static final String PREFIXO = "v1:";
+
+    private ChangeFeeds() {
+    }
+
+    static long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return 0L; // sincronização inicial completa
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIXO)) {
+                throw new InvalidCursorException("Token de mudanças inválido");
+            }
+            return Long.parseLong(valor.substring(PREFIXO.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Token de mudanças inválido");
+        }
+    }
+
+    static int limit(Integer limit) {
+        return limit == null || limit < 1 ? TAMANHO_PADRAO : Math.min(limit, TAMANHO_MAXIMO);
+    }
+
+    /**
+     * As duas listas devem vir ordenadas por change_seq e com até limit + 1 elementos cada.
+     */
+    static <E, T> ChangeFeed<T> merge(long since, int limit,
+                                      List<E> alterados, ToLongFunction<E> seq, Function<E, Long> id, Function<E, T> toResponse,
+                                      List<StaffTombstone> removidos) {
+        List<ChangeFeed.Change<T>> changes = new ArrayList<>(Math.min(limit, alterados.size() + removidos.size()));
+        long ultimo = since;
+        int a = 0;
+        int r = 0;
+        while (changes.size() < limit && (a < alterados.size() || r < removidos.size())) {
+            boolean proximoAlterado = r >= removidos.size()
+                    || (a < alterados.size() && seq.applyAsLong(alterados.get(a)) < removidos.get(r).getChangeSeq());
+            if (proximoAlterado) {
+                E e = alterados.get(a++);
+                changes.add(new ChangeFeed.Change<>(ChangeFeed.Type.UPSERT, id.apply(e), toResponse.apply(e)));
+                ultimo = seq.applyAsLong(e);
+            } else {
+                StaffTombstone t = removidos.get(r++);
+                changes.add(new ChangeFeed.Change<>(ChangeFeed.Type.DELETE, t.getEntityId(), null));
+                ultimo = t.getChangeSeq();
+            }
+        }
+        boolean hasMore = a < alterados.size() || r < removidos.size();
+        return new ChangeFeed<>(changes, encode(ultimo), hasMore);
+    }
+
+    private static String encode(long seq) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIXO + seq).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -3,36 +3,65 @@ package br.com.distrischool.professortecadm.service;
 import br.com.distrischool.professortecadm.dto.*;
 import br.com.distrischool.professortecadm.exception.*;
 import br.com.distrischool.professortecadm.messaging.ProfessorEventPublisher;
+import br.com.distrischool.professortecadm.messaging.StaffCacheInvalidator;
 import br.com.distrischool.professortecadm.messaging.dto.ProfessorEventDTO;
 import br.com.distrischool.professortecadm.model.Professor;
+import br.com.distrischool.professortecadm.model.StaffTombstone;
 import br.com.distrischool.professortecadm.repository.ProfessorRepository;
+import br.com.distrischool.professortecadm.repository.StaffTombstoneRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class ProfessorService {
 
+    private static final String EMAIL_UNIQUE_INDEX = "uk_professores_email_lower";
+    private static final Set<String> SORTABLE = Set.of("id", "nome", "dataContratacao");
+    private static final int TAMANHO_PAGINA_PADRAO = 50;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final int RESULTADOS_BUSCA_PADRAO = 20;
+    private static final int RESULTADOS_BUSCA_MAXIMO = 100;
+    private static final int IDS_POR_BUSCA_MAXIMO = 500;
+
     private final ProfessorRepository professorRepository;
+    private final StaffTombstoneRepository tombstoneRepository;
     private final ProfessorEventPublisher eventPublisher;
+    private final StaffCacheInvalidator cacheInvalidator;
+    private final StaffSearchIndex searchIndex;
 
-    public ProfessorService(ProfessorRepository professorRepository, ProfessorEventPublisher eventPublisher) {
+    public ProfessorService(ProfessorRepository professorRepository, StaffTombstoneRepository tombstoneRepository,
+                            ProfessorEventPublisher eventPublisher, StaffCacheInvalidator cacheInvalidator,
+                            StaffSearchIndex searchIndex) {
         this.professorRepository = professorRepository;
+        this.tombstoneRepository = tombstoneRepository;
         this.eventPublisher = eventPublisher;
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchIndex = searchIndex;
     }
 
     @Transactional
     public ProfessorResponse create(CreateProfessorRequest request) {
-        if (professorRepository.existsByEmail(request.email())) {
-            throw new EmailAlreadyUsedException("Email já está em uso: " + request.email());
-        }
         Professor professor = new Professor();
         professor.setNome(request.nome());
         professor.setEmail(request.email());
         professor.setEspecialidade(request.especialidade());
         professor.setDataContratacao(request.dataContratacao());
-        Professor saved = professorRepository.save(professor);
+        Professor saved = saveUniqueEmail(professor);
+        cacheInvalidator.professoresChanged(List.of(saved.getId()));
+        searchIndex.professorSaved(saved);
         
         // Publish professor.created event
         eventPublisher.publish("professor.created",
@@ -51,29 +80,70 @@ public class ProfessorService {
 
     @Transactional(readOnly = true)
     public Page<ProfessorResponse> list(Pageable pageable) {
-        return professorRepository.findAll(pageable).map(this::toResponse);
+        return professorRepository.findAll(pageable).map(ProfessorService::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ProfessorResponse> scroll(String cursor, String sort, Integer size) {
+        KeysetCursor.Position position = KeysetCursor.parse(cursor, sort, SORTABLE);
+        int tamanhoPagina = size == null || size < 1 ? TAMANHO_PAGINA_PADRAO : Math.min(size, TAMANHO_PAGINA_MAXIMO);
+        Window<Professor> window = professorRepository.findAllBy(position.scrollPosition(), position.sort(), Limit.of(tamanhoPagina));
+        String nextCursor = window.hasNext()
+                ? KeysetCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), position.sort())
+                : null;
+        return new CursorPage<>(window.map(ProfessorService::toResponse).getContent(), nextCursor);
+    }
+
+    // Alterações (inclusive exclusões) depois do token; sem token, todas as linhas atuais
+    @Transactional(readOnly = true)
+    public ChangeFeed<ProfessorResponse> changesSince(String since, Integer limit) {
+        long desde = ChangeFeeds.decode(since);
+        int tamanho = ChangeFeeds.limit(limit);
+        List<Professor> alterados = professorRepository.findByChangeSeqGreaterThanOrderByChangeSeq(desde, Limit.of(tamanho + 1));
+        List<StaffTombstone> removidos = tombstoneRepository.findByEntityAndChangeSeqGreaterThanOrderByChangeSeq(
+                StaffTombstone.PROFESSOR, desde, Limit.of(tamanho + 1));
+        return ChangeFeeds.merge(desde, tamanho, alterados, Professor::getChangeSeq, Professor::getId, ProfessorService::toResponse, removidos);
+    }
+
+    // Busca por nome/especialidade no índice em memória, sem consultar o banco
+    public List<ProfessorResponse> search(String query, Integer limit) {
+        int tamanho = limit == null || limit < 1 ? RESULTADOS_BUSCA_PADRAO : Math.min(limit, RESULTADOS_BUSCA_MAXIMO);
+        return searchIndex.searchProfessores(query, tamanho);
     }
 
     @Transactional(readOnly = true)
     public ProfessorResponse getById(Long id) {
         return professorRepository.findById(id)
-                .map(this::toResponse)
+                .map(ProfessorService::toResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Professor não encontrado: id=" + id));
     }
 
+    // Uma única consulta IN para todos os ids; resultado na ordem pedida
+    @Transactional(readOnly = true)
+    public BatchResponse<ProfessorResponse> getByIds(List<Long> ids) {
+        List<Long> pedidos = ids.stream().distinct().toList();
+        if (pedidos.size() > IDS_POR_BUSCA_MAXIMO) {
+            throw new BatchTooLargeException("Máximo de " + IDS_POR_BUSCA_MAXIMO + " ids por requisição, recebidos " + pedidos.size());
+        }
+        Map<Long, Professor> encontrados = professorRepository.findAllById(pedidos).stream()
+                .collect(Collectors.toMap(Professor::getId, Function.identity()));
+        return new BatchResponse<>(
+                pedidos.stream().filter(encontrados::containsKey).map(id -> toResponse(encontrados.get(id))).toList(),
+                pedidos.stream().filter(id -> !encontrados.containsKey(id)).toList());
+    }
+
     @Transactional
     public ProfessorResponse update(Long id, UpdateProfessorRequest request) {
         Professor professor = professorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Professor não encontrado: id=" + id));
 
-        if (!request.email().equalsIgnoreCase(professor.getEmail()) && professorRepository.existsByEmail(request.email())) {
-            throw new EmailAlreadyUsedException("Email já está em uso: " + request.email());
-        }
         professor.setNome(request.nome());
         professor.setEmail(request.email());
         professor.setEspecialidade(request.especialidade());
         professor.setDataContratacao(request.dataContratacao());
-        Professor saved = professorRepository.save(professor);
+        Professor saved = saveUniqueEmail(professor);
+        cacheInvalidator.professoresChanged(List.of(saved.getId()));
+        searchIndex.professorSaved(saved);
         
         // Publish professor.updated event
         eventPublisher.publish("professor.updated",
@@ -96,6 +166,8 @@ public class ProfessorService {
             throw new ResourceNotFoundException("Professor não encontrado: id=" + id);
         }
         professorRepository.deleteById(id);
+        cacheInvalidator.professoresChanged(List.of(id));
+        searchIndex.professorRemoved(id);
         
         // Publish professor.deleted event
         eventPublisher.publish("professor.deleted",
@@ -106,7 +178,39 @@ public class ProfessorService {
         );
     }
 
-    private ProfessorResponse toResponse(Professor professor) {
+    // Um único DELETE ... RETURNING para o lote; os eventos professor.deleted saem juntos após o commit
+    @Transactional
+    public BulkDeleteResponse deleteAll(List<Long> ids) {
+        List<Long> pedidos = ids.stream().distinct().toList();
+        Set<Long> removidos = new HashSet<>(professorRepository.deleteAllByIdReturningIds(pedidos.toArray(Long[]::new)));
+        List<Long> deleted = pedidos.stream().filter(removidos::contains).toList();
+        List<Long> notFound = pedidos.stream().filter(id -> !removidos.contains(id)).toList();
+        if (!deleted.isEmpty()) {
+            cacheInvalidator.professoresDeleted(deleted);
+            searchIndex.professoresRemoved(deleted);
+            eventPublisher.publishAll("professor.deleted", deleted.stream()
+                    .map(id -> ProfessorEventDTO.builder()
+                            .id(id)
+                            .type("DELETED")
+                            .build())
+                    .toList());
+        }
+        return new BulkDeleteResponse(deleted, notFound);
+    }
+
+    // Um único INSERT/UPDATE; o índice único em lower(email) detecta duplicidade sem consulta prévia
+    private Professor saveUniqueEmail(Professor professor) {
+        try {
+            return professorRepository.saveAndFlush(professor);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.violates(e, EMAIL_UNIQUE_INDEX)) {
+                throw new EmailAlreadyUsedException("Email já está em uso: " + professor.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    static ProfessorResponse toResponse(Professor professor) {
         return new ProfessorResponse(
                 professor.getId(),
                 professor.getNome(),
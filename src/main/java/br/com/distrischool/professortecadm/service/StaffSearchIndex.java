@@ -0,0 +1,264 @@
+package br.com.distrischool.professortecadm.service;
+
+import br.com.distrischool.professortecadm.dto.ProfessorResponse;
+import br.com.distrischool.professortecadm.dto.TecnicoAdministrativoResponse;
+import br.com.distrischool.professortecadm.model.Professor;
+import br.com.distrischool.professortecadm.model.TecnicoAdministrativo;
+import br.com.distrischool.professortecadm.repository.ProfessorRepository;
+import br.com.distrischool.professortecadm.repository.TecnicoAdministrativoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória para a busca de professores (nome, especialidade) e técnicos (nome, cargo).
+ * Os termos são normalizados (minúsculas, sem acento) e cada termo da consulta casa por prefixo;
+ * todos os termos precisam casar. É montado antes de a aplicação aceitar requisições e atualizado
+ * após o commit pelas escritas desta instância e pelas invalidações vindas das demais.
+ */
+@Component
+public class StaffSearchIndex implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(StaffSearchIndex.class);
+
+    private static final Pattern SEPARADOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private final ProfessorRepository professorRepository;
+    private final TecnicoAdministrativoRepository tecnicoRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final InvertedIndex<ProfessorResponse> professores = new InvertedIndex<>(
+            p -> List.of(nullToEmpty(p.nome()), nullToEmpty(p.especialidade())),
+            Comparator.comparing(ProfessorResponse::nome).thenComparing(ProfessorResponse::id));
+    private final InvertedIndex<TecnicoAdministrativoResponse> tecnicos = new InvertedIndex<>(
+            t -> List.of(nullToEmpty(t.nome()), nullToEmpty(t.cargo())),
+            Comparator.comparing(TecnicoAdministrativoResponse::nome).thenComparing(TecnicoAdministrativoResponse::id));
+
+    public StaffSearchIndex(ProfessorRepository professorRepository,
+                            TecnicoAdministrativoRepository tecnicoRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.professorRepository = professorRepository;
+        this.tecnicoRepository = tecnicoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Carga inicial: roda depois de criados os beans e antes de o servidor web e os listeners iniciarem
+    @Override
+    public void afterSingletonsInstantiated() {
+        long inicio = System.nanoTime();
+        professorRepository.findAll().forEach(p -> professores.put(p.getId(), ProfessorService.toResponse(p)));
+        tecnicoRepository.findAll().forEach(t -> tecnicos.put(t.getId(), TecnicoAdministrativoService.toResponse(t)));
+        log.info("Índice de busca montado: {} professores, {} técnicos em {} ms",
+                professores.size(), tecnicos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    public List<ProfessorResponse> searchProfessores(String query, int limit) {
+        return professores.search(tokenize(query), limit);
+    }
+
+    public List<TecnicoAdministrativoResponse> searchTecnicos(String query, int limit) {
+        return tecnicos.search(tokenize(query), limit);
+    }
+
+    public void professorSaved(Professor professor) {
+        ProfessorResponse doc = ProfessorService.toResponse(professor);
+        afterCommit(() -> professores.put(doc.id(), doc));
+    }
+
+    public void professorRemoved(Long id) {
+        afterCommit(() -> professores.remove(id));
+    }
+
+    public void professoresRemoved(Collection<Long> ids) {
+        afterCommit(() -> ids.forEach(professores::remove));
+    }
+
+    public void tecnicoSaved(TecnicoAdministrativo tecnico) {
+        TecnicoAdministrativoResponse doc = TecnicoAdministrativoService.toResponse(tecnico);
+        afterCommit(() -> tecnicos.put(doc.id(), doc));
+    }
+
+    public void tecnicoRemoved(Long id) {
+        afterCommit(() -> tecnicos.remove(id));
+    }
+
+    public void tecnicosRemoved(Collection<Long> ids) {
+        afterCommit(() -> ids.forEach(tecnicos::remove));
+    }
+
+    /**
+     * Relê do banco os ids alterados por outra instância. Transação de escrita para ler do primário:
+     * a réplica ainda pode não ter o commit que originou a invalidação.
+     */
+    public void refreshProfessores(Collection<Long> ids) {
+        List<Professor> atuais = transactionTemplate.execute(status -> professorRepository.findAllById(ids));
+        Set<Long> removidos = new HashSet<>(ids);
+        for (Professor p : atuais) {
+            removidos.remove(p.getId());
+            professores.put(p.getId(), ProfessorService.toResponse(p));
+        }
+        removidos.forEach(professores::remove);
+    }
+
+    public void refreshTecnicos(Collection<Long> ids) {
+        List<TecnicoAdministrativo> atuais = transactionTemplate.execute(status -> tecnicoRepository.findAllById(ids));
+        Set<Long> removidos = new HashSet<>(ids);
+        for (TecnicoAdministrativo t : atuais) {
+            removidos.remove(t.getId());
+            tecnicos.put(t.getId(), TecnicoAdministrativoService.toResponse(t));
+        }
+        removidos.forEach(tecnicos::remove);
+    }
+
+    // Alteração desfeita por rollback não pode aparecer na busca
+    private static void afterCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    static Set<String> tokenize(String texto) {
+        Set<String> termos = new LinkedHashSet<>();
+        if (texto == null) {
+            return termos;
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        for (String termo : SEPARADOR.split(normalizado)) {
+            if (!termo.isEmpty()) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    private static String nullToEmpty(String valor) {
+        return valor == null ? "" : valor;
+    }
+
+    /**
+     * Termo -> ids, em TreeMap para que a busca por prefixo seja um intervalo do mapa.
+     */
+    private static final class InvertedIndex<T> {
+
+        private final Function<T, List<String>> campos;
+        private final Comparator<T> ordem;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<Long, T> documentos = new HashMap<>();
+        private final Map<Long, Set<String>> termosPorDocumento = new HashMap<>();
+        private final TreeMap<String, Set<Long>> postings = new TreeMap<>();
+
+        InvertedIndex(Function<T, List<String>> campos, Comparator<T> ordem) {
+            this.campos = campos;
+            this.ordem = ordem;
+        }
+
+        void put(Long id, T documento) {
+            Set<String> termos = new HashSet<>();
+            campos.apply(documento).forEach(campo -> termos.addAll(tokenize(campo)));
+            lock.writeLock().lock();
+            try {
+                unlink(id);
+                documentos.put(id, documento);
+                termosPorDocumento.put(id, termos);
+                termos.forEach(termo -> postings.computeIfAbsent(termo, k -> new HashSet<>()).add(id));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                unlink(id);
+                documentos.remove(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // Chamado com o lock de escrita
+        private void unlink(Long id) {
+            Set<String> anteriores = termosPorDocumento.remove(id);
+            if (anteriores == null) {
+                return;
+            }
+            for (String termo : anteriores) {
+                Set<Long> ids = postings.get(termo);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(termo);
+                }
+            }
+        }
+
+        List<T> search(Set<String> termos, int limit) {
+            if (termos.isEmpty()) {
+                return List.of();
+            }
+            List<T> encontrados = new ArrayList<>();
+            lock.readLock().lock();
+            try {
+                Set<Long> resultado = null;
+                for (String termo : termos) {
+                    Set<Long> ids = new HashSet<>();
+                    // todas as chaves que começam com o termo
+                    postings.subMap(termo, true, termo + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+                    if (resultado == null) {
+                        resultado = ids;
+                    } else {
+                        resultado.retainAll(ids);
+                    }
+                    if (resultado.isEmpty()) {
+                        return List.of();
+                    }
+                }
+                resultado.forEach(id -> encontrados.add(documentos.get(id)));
+            } finally {
+                lock.readLock().unlock();
+            }
+            encontrados.sort(ordem);
+            return encontrados.size() > limit ? List.copyOf(encontrados.subList(0, limit)) : encontrados;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return documentos.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -1,64 +1,143 @@
 package br.com.distrischool.professortecadm.service;
 
+import br.com.distrischool.professortecadm.dto.BatchResponse;
+import br.com.distrischool.professortecadm.dto.BulkDeleteResponse;
+import br.com.distrischool.professortecadm.dto.ChangeFeed;
 import br.com.distrischool.professortecadm.dto.CreateTecnicoRequest;
+import br.com.distrischool.professortecadm.dto.CursorPage;
 import br.com.distrischool.professortecadm.dto.TecnicoAdministrativoResponse;
 import br.com.distrischool.professortecadm.dto.UpdateTecnicoRequest;
+import br.com.distrischool.professortecadm.exception.BatchTooLargeException;
 import br.com.distrischool.professortecadm.exception.EmailAlreadyUsedException;
 import br.com.distrischool.professortecadm.exception.ResourceNotFoundException;
+import br.com.distrischool.professortecadm.exception.UniqueConstraints;
+import br.com.distrischool.professortecadm.messaging.StaffCacheInvalidator;
+import br.com.distrischool.professortecadm.model.StaffTombstone;
 import br.com.distrischool.professortecadm.model.TecnicoAdministrativo;
+import br.com.distrischool.professortecadm.repository.StaffTombstoneRepository;
 import br.com.distrischool.professortecadm.repository.TecnicoAdministrativoRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Service
 public class TecnicoAdministrativoService {
 
+    private static final String EMAIL_UNIQUE_INDEX = "uk_tecnicos_administrativos_email_lower";
+    private static final Set<String> SORTABLE = Set.of("id", "nome", "cargo", "dataContratacao");
+    private static final int TAMANHO_PAGINA_PADRAO = 50;
+    private static final int TAMANHO_PAGINA_MAXIMO = 500;
+    private static final int RESULTADOS_BUSCA_PADRAO = 20;
+    private static final int RESULTADOS_BUSCA_MAXIMO = 100;
+    private static final int IDS_POR_BUSCA_MAXIMO = 500;
+
     private final TecnicoAdministrativoRepository repository;
+    private final StaffTombstoneRepository tombstoneRepository;
+    private final StaffCacheInvalidator cacheInvalidator;
+    private final StaffSearchIndex searchIndex;
 
-    public TecnicoAdministrativoService(TecnicoAdministrativoRepository repository) {
+    public TecnicoAdministrativoService(TecnicoAdministrativoRepository repository,
+                                        StaffTombstoneRepository tombstoneRepository,
+                                        StaffCacheInvalidator cacheInvalidator,
+                                        StaffSearchIndex searchIndex) {
         this.repository = repository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.searchIndex = searchIndex;
     }
 
     @Transactional
     public TecnicoAdministrativoResponse create(CreateTecnicoRequest request) {
-        if (repository.existsByEmail(request.email())) {
-            throw new EmailAlreadyUsedException("Email já está em uso: " + request.email());
-        }
         TecnicoAdministrativo tecnico = new TecnicoAdministrativo();
         tecnico.setNome(request.nome());
         tecnico.setEmail(request.email());
         tecnico.setCargo(request.cargo());
         tecnico.setDataContratacao(request.dataContratacao());
-        return toResponse(repository.save(tecnico));
+        TecnicoAdministrativo saved = saveUniqueEmail(tecnico);
+        cacheInvalidator.tecnicosChanged(List.of(saved.getId()));
+        searchIndex.tecnicoSaved(saved);
+        return toResponse(saved);
     }
 
     @Transactional(readOnly = true)
     public Page<TecnicoAdministrativoResponse> list(Pageable pageable) {
-        return repository.findAll(pageable).map(this::toResponse);
+        return repository.findAll(pageable).map(TecnicoAdministrativoService::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TecnicoAdministrativoResponse> scroll(String cursor, String sort, Integer size) {
+        KeysetCursor.Position position = KeysetCursor.parse(cursor, sort, SORTABLE);
+        int tamanhoPagina = size == null || size < 1 ? TAMANHO_PAGINA_PADRAO : Math.min(size, TAMANHO_PAGINA_MAXIMO);
+        Window<TecnicoAdministrativo> window = repository.findAllBy(position.scrollPosition(), position.sort(), Limit.of(tamanhoPagina));
+        String nextCursor = window.hasNext()
+                ? KeysetCursor.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), position.sort())
+                : null;
+        return new CursorPage<>(window.map(TecnicoAdministrativoService::toResponse).getContent(), nextCursor);
+    }
+
+    // Alterações (inclusive exclusões) depois do token; sem token, todas as linhas atuais
+    @Transactional(readOnly = true)
+    public ChangeFeed<TecnicoAdministrativoResponse> changesSince(String since, Integer limit) {
+        long desde = ChangeFeeds.decode(since);
+        int tamanho = ChangeFeeds.limit(limit);
+        List<TecnicoAdministrativo> alterados = repository.findByChangeSeqGreaterThanOrderByChangeSeq(desde, Limit.of(tamanho + 1));
+        List<StaffTombstone> removidos = tombstoneRepository.findByEntityAndChangeSeqGreaterThanOrderByChangeSeq(
+                StaffTombstone.TECNICO, desde, Limit.of(tamanho + 1));
+        return ChangeFeeds.merge(desde, tamanho, alterados, TecnicoAdministrativo::getChangeSeq, TecnicoAdministrativo::getId, TecnicoAdministrativoService::toResponse, removidos);
+    }
+
+    // Busca por nome/cargo no índice em memória, sem consultar o banco
+    public List<TecnicoAdministrativoResponse> search(String query, Integer limit) {
+        int tamanho = limit == null || limit < 1 ? RESULTADOS_BUSCA_PADRAO : Math.min(limit, RESULTADOS_BUSCA_MAXIMO);
+        return searchIndex.searchTecnicos(query, tamanho);
     }
 
     @Transactional(readOnly = true)
     public TecnicoAdministrativoResponse getById(Long id) {
         return repository.findById(id)
-                .map(this::toResponse)
+                .map(TecnicoAdministrativoService::toResponse)
                 .orElseThrow(() -> new ResourceNotFoundException("Técnico Administrativo não encontrado: id=" + id));
     }
 
+    // Uma única consulta IN para todos os ids; resultado na ordem pedida
+    @Transactional(readOnly = true)
+    public BatchResponse<TecnicoAdministrativoResponse> getByIds(List<Long> ids) {
+        List<Long> pedidos = ids.stream().distinct().toList();
+        if (pedidos.size() > IDS_POR_BUSCA_MAXIMO) {
+            throw new BatchTooLargeException("Máximo de " + IDS_POR_BUSCA_MAXIMO + " ids por requisição, recebidos " + pedidos.size());
+        }
+        Map<Long, TecnicoAdministrativo> encontrados = repository.findAllById(pedidos).stream()
+                .collect(Collectors.toMap(TecnicoAdministrativo::getId, Function.identity()));
+        return new BatchResponse<>(
+                pedidos.stream().filter(encontrados::containsKey).map(id -> toResponse(encontrados.get(id))).toList(),
+                pedidos.stream().filter(id -> !encontrados.containsKey(id)).toList());
+    }
+
     @Transactional
     public TecnicoAdministrativoResponse update(Long id, UpdateTecnicoRequest request) {
         TecnicoAdministrativo tecnico = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Técnico Administrativo não encontrado: id=" + id));
 
-        if (!request.email().equalsIgnoreCase(tecnico.getEmail()) && repository.existsByEmail(request.email())) {
-            throw new EmailAlreadyUsedException("Email já está em uso: " + request.email());
-        }
         tecnico.setNome(request.nome());
         tecnico.setEmail(request.email());
         tecnico.setCargo(request.cargo());
         tecnico.setDataContratacao(request.dataContratacao());
-        return toResponse(repository.save(tecnico));
+        TecnicoAdministrativo saved = saveUniqueEmail(tecnico);
+        cacheInvalidator.tecnicosChanged(List.of(saved.getId()));
+        searchIndex.tecnicoSaved(saved);
+        return toResponse(saved);
     }
 
     @Transactional
@@ -67,9 +146,37 @@ public class TecnicoAdministrativoService {
             throw new ResourceNotFoundException("Técnico Administrativo não encontrado: id=" + id);
         }
         repository.deleteById(id);
+        cacheInvalidator.tecnicosChanged(List.of(id));
+        searchIndex.tecnicoRemoved(id);
+    }
+
+    // Um único DELETE ... RETURNING para o lote
+    @Transactional
+    public BulkDeleteResponse deleteAll(List<Long> ids) {
+        List<Long> pedidos = ids.stream().distinct().toList();
+        Set<Long> removidos = new HashSet<>(repository.deleteAllByIdReturningIds(pedidos.toArray(Long[]::new)));
+        List<Long> deleted = pedidos.stream().filter(removidos::contains).toList();
+        List<Long> notFound = pedidos.stream().filter(id -> !removidos.contains(id)).toList();
+        if (!deleted.isEmpty()) {
+            cacheInvalidator.tecnicosDeleted(deleted);
+            searchIndex.tecnicosRemoved(deleted);
+        }
+        return new BulkDeleteResponse(deleted, notFound);
+    }
+
+    // Um único INSERT/UPDATE; o índice único em lower(email) detecta duplicidade sem consulta prévia
+    private TecnicoAdministrativo saveUniqueEmail(TecnicoAdministrativo tecnico) {
+        try {
+            return repository.saveAndFlush(tecnico);
+        } catch (DataIntegrityViolationException e) {
+            if (UniqueConstraints.violates(e, EMAIL_UNIQUE_INDEX)) {
+                throw new EmailAlreadyUsedException("Email já está em uso: " + tecnico.getEmail());
+            }
+            throw e;
+        }
     }
 
-    private TecnicoAdministrativoResponse toResponse(TecnicoAdministrativo tecnico) {
+    static TecnicoAdministrativoResponse toResponse(TecnicoAdministrativo tecnico) {
         return new TecnicoAdministrativoResponse(
                 tecnico.getId(),
                 tecnico.getNome(),
@@ -0,0 +1,7 @@
+-- Unicidade de email sem diferenciar maiúsculas/minúsculas (mesma regra do equalsIgnoreCase dos updates).
+-- O índice funcional substitui a constraint UNIQUE original e é ele que detecta emails duplicados no INSERT.
+ALTER TABLE professores DROP CONSTRAINT IF EXISTS professores_email_key;
+CREATE UNIQUE INDEX uk_professores_email_lower ON professores (lower(email));
+
+ALTER TABLE tecnicos_administrativos DROP CONSTRAINT IF EXISTS tecnicos_administrativos_email_key;
+CREATE UNIQUE INDEX uk_tecnicos_administrativos_email_lower ON tecnicos_administrativos (lower(email));
@@ -0,0 +1,7 @@
+-- Índices para a listagem por cursor (GET /scroll): cada ordenação permitida é (chave, id)
+CREATE INDEX idx_professores_nome_id ON professores (nome, id);
+CREATE INDEX idx_professores_data_contratacao_id ON professores (data_contratacao, id);
+
+CREATE INDEX idx_tecnicos_administrativos_nome_id ON tecnicos_administrativos (nome, id);
+CREATE INDEX idx_tecnicos_administrativos_cargo_id ON tecnicos_administrativos (cargo, id);
+CREATE INDEX idx_tecnicos_administrativos_data_contratacao_id ON tecnicos_administrativos (data_contratacao, id);
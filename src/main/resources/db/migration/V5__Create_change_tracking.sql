@@ -0,0 +1,57 @@
+-- Rastreamento de alterações para o feed incremental (GET .../changes?since=).
+-- Cada INSERT/UPDATE recebe um número crescente em change_seq; cada DELETE deixa uma tombstone.
+-- Os escritores são serializados por um advisory lock de transação, de modo que a ordem de change_seq
+-- é também a ordem de commit: um leitor nunca vê o número N+1 antes do N, e o watermark não pula linhas.
+-- As escritas de staff são raras, então a serialização não é um gargalo.
+
+CREATE SEQUENCE staff_change_seq;
+
+ALTER TABLE professores ADD COLUMN change_seq BIGINT;
+ALTER TABLE professores ADD COLUMN updated_at TIMESTAMPTZ;
+UPDATE professores SET change_seq = nextval('staff_change_seq'), updated_at = now();
+ALTER TABLE professores ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE professores ALTER COLUMN updated_at SET NOT NULL;
+CREATE UNIQUE INDEX idx_professores_change_seq ON professores (change_seq);
+
+ALTER TABLE tecnicos_administrativos ADD COLUMN change_seq BIGINT;
+ALTER TABLE tecnicos_administrativos ADD COLUMN updated_at TIMESTAMPTZ;
+UPDATE tecnicos_administrativos SET change_seq = nextval('staff_change_seq'), updated_at = now();
+ALTER TABLE tecnicos_administrativos ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE tecnicos_administrativos ALTER COLUMN updated_at SET NOT NULL;
+CREATE UNIQUE INDEX idx_tecnicos_administrativos_change_seq ON tecnicos_administrativos (change_seq);
+
+CREATE TABLE staff_tombstones (
+                                  change_seq BIGINT PRIMARY KEY,
+                                  entity VARCHAR(20) NOT NULL,
+                                  entity_id BIGINT NOT NULL,
+                                  deleted_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+CREATE INDEX idx_staff_tombstones_entity_change_seq ON staff_tombstones (entity, change_seq);
+
+-- search_path fixado na criação: a conexão da aplicação não tem o schema do serviço no search_path
+CREATE FUNCTION staff_track_change() RETURNS trigger
+    LANGUAGE plpgsql
+    SET search_path FROM CURRENT
+AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('staff_change_seq'));
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO staff_tombstones (change_seq, entity, entity_id)
+        VALUES (nextval('staff_change_seq'), TG_ARGV[0], OLD.id);
+        RETURN OLD;
+    END IF;
+    NEW.change_seq := nextval('staff_change_seq');
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$;
+
+CREATE TRIGGER trg_professores_change BEFORE INSERT OR UPDATE ON professores
+    FOR EACH ROW EXECUTE FUNCTION staff_track_change('professor');
+CREATE TRIGGER trg_professores_delete AFTER DELETE ON professores
+    FOR EACH ROW EXECUTE FUNCTION staff_track_change('professor');
+
+CREATE TRIGGER trg_tecnicos_administrativos_change BEFORE INSERT OR UPDATE ON tecnicos_administrativos
+    FOR EACH ROW EXECUTE FUNCTION staff_track_change('tecnico');
+CREATE TRIGGER trg_tecnicos_administrativos_delete AFTER DELETE ON tecnicos_administrativos
+    FOR EACH ROW EXECUTE FUNCTION staff_track_change('tecnico');
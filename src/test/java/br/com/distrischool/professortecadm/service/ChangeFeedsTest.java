@@ -0,0 +1,77 @@
+package br.com.distrischool.professortecadm.service;
+
+import br.com.distrischool.professortecadm.dto.ChangeFeed;
+import br.com.distrischool.professortecadm.model.StaffTombstone;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ChangeFeedsTest {
+
+    private record Linha(long seq, Long id) {
+    }
+
+    @Test
+    void intercalaAlteracoesETombstonesPorChangeSeq() {
+        List<Linha> alterados = List.of(new Linha(2, 10L), new Linha(5, 11L));
+        List<StaffTombstone> removidos = List.of(tombstone(3, 20L), tombstone(4, 21L), tombstone(7, 22L));
+
+        ChangeFeed<String> feed = merge(1, 10, alterados, removidos);
+
+        assertThat(feed.changes()).extracting(ChangeFeed.Change::type, ChangeFeed.Change::id).containsExactly(
+                tuple(ChangeFeed.Type.UPSERT, 10L),
+                tuple(ChangeFeed.Type.DELETE, 20L),
+                tuple(ChangeFeed.Type.DELETE, 21L),
+                tuple(ChangeFeed.Type.UPSERT, 11L),
+                tuple(ChangeFeed.Type.DELETE, 22L));
+        assertThat(feed.changes().get(0).data()).isEqualTo("doc-10");
+        assertThat(feed.changes().get(1).data()).isNull();
+        assertThat(feed.hasMore()).isFalse();
+        assertThat(ChangeFeeds.decode(feed.nextToken())).isEqualTo(7L);
+    }
+
+    @Test
+    void cortaNoLimiteEContinuaDaUltimaEntregue() {
+        // até limit + 1 de cada lista, como o serviço consulta
+        List<Linha> alterados = List.of(new Linha(2, 10L), new Linha(6, 11L), new Linha(8, 12L));
+        List<StaffTombstone> removidos = List.of(tombstone(3, 20L), tombstone(4, 21L));
+
+        ChangeFeed<String> feed = merge(0, 2, alterados, removidos);
+
+        assertThat(feed.changes()).extracting(ChangeFeed.Change::id).containsExactly(10L, 20L);
+        assertThat(feed.hasMore()).isTrue();
+        assertThat(ChangeFeeds.decode(feed.nextToken())).isEqualTo(3L);
+    }
+
+    @Test
+    void sobraSoDeUmaListaTambemIndicaHasMore() {
+        ChangeFeed<String> feed = merge(0, 2, List.of(), List.of(tombstone(1, 20L), tombstone(2, 21L), tombstone(9, 22L)));
+
+        assertThat(feed.changes()).hasSize(2);
+        assertThat(feed.hasMore()).isTrue();
+    }
+
+    @Test
+    void semMudancasMantemOWatermark() {
+        ChangeFeed<String> feed = merge(42, 10, List.of(), List.of());
+
+        assertThat(feed.changes()).isEmpty();
+        assertThat(feed.hasMore()).isFalse();
+        assertThat(ChangeFeeds.decode(feed.nextToken())).isEqualTo(42L);
+    }
+
+    private static ChangeFeed<String> merge(long since, int limit, List<Linha> alterados, List<StaffTombstone> removidos) {
+        return ChangeFeeds.merge(since, limit, alterados, Linha::seq, Linha::id, l -> "doc-" + l.id(), removidos);
+    }
+
+    private static StaffTombstone tombstone(long changeSeq, Long entityId) {
+        StaffTombstone t = new StaffTombstone();
+        ReflectionTestUtils.setField(t, "changeSeq", changeSeq);
+        ReflectionTestUtils.setField(t, "entityId", entityId);
+        return t;
+    }
+}
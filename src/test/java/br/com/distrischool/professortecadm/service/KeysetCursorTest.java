@@ -0,0 +1,82 @@
+package br.com.distrischool.professortecadm.service;
+
+import br.com.distrischool.professortecadm.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    private static final Set<String> SORTS = Set.of("id", "nome", "dataContratacao");
+
+    @Test
+    void semCursorUsaOSortPedidoComIdComoDesempate() {
+        KeysetCursor.Position position = KeysetCursor.parse(null, "-nome", SORTS);
+
+        assertThat(position.scrollPosition().getKeys()).isEmpty();
+        assertThat(position.sort()).containsExactly(Sort.Order.desc("nome"), Sort.Order.desc("id"));
+    }
+
+    @Test
+    void cursorPreservaOrdenacaoETiposDasChaves() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("dataContratacao", LocalDate.of(2024, 2, 29));
+        keys.put("id", 17L);
+        Sort sort = Sort.by(Sort.Order.desc("dataContratacao"), Sort.Order.desc("id"));
+
+        String cursor = KeysetCursor.encode(ScrollPosition.forward(keys), sort);
+        // com cursor, o parâmetro sort é ignorado
+        KeysetCursor.Position position = KeysetCursor.parse(cursor, "nome", SORTS);
+
+        assertThat(position.sort()).isEqualTo(sort);
+        assertThat(position.scrollPosition().getKeys()).containsExactlyEntriesOf(keys);
+        assertThat(position.scrollPosition().getKeys().get("id")).isInstanceOf(Long.class);
+    }
+
+    @Test
+    void sortNaoPermitidoSemCursorERejeitado() {
+        assertThatThrownBy(() -> KeysetCursor.parse("", "email", SORTS))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void cursorComSortAdulteradoERejeitado() {
+        String cursor = token("{\"d\":\"ASC\",\"s\":\"email\",\"k\":[[\"email\",\"S\",\"a@b.c\"],[\"id\",\"L\",\"1\"]]}");
+
+        assertThatThrownBy(() -> KeysetCursor.parse(cursor, null, SORTS))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessage("Cursor inválido");
+    }
+
+    @Test
+    void cursorComChaveForaDaOrdenacaoPermitidaERejeitado() {
+        String cursor = token("{\"d\":\"ASC\",\"s\":\"nome\",\"k\":[[\"senha\",\"S\",\"x\"],[\"id\",\"L\",\"1\"]]}");
+
+        assertThatThrownBy(() -> KeysetCursor.parse(cursor, null, SORTS))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void cursorMalformadoERejeitado() {
+        assertThatThrownBy(() -> KeysetCursor.parse("não é base64", null, SORTS))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.parse(token("{\"d\":\"PARA_CIMA\",\"s\":\"id\",\"k\":[]}"), null, SORTS))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.parse(token("{\"d\":\"ASC\",\"s\":\"id\",\"k\":[[\"id\",\"L\",\"um\"]]}"), null, SORTS))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String token(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
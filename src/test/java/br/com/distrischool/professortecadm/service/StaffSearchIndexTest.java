@@ -0,0 +1,76 @@
+package br.com.distrischool.professortecadm.service;
+
+import br.com.distrischool.professortecadm.dto.ProfessorResponse;
+import br.com.distrischool.professortecadm.model.Professor;
+import br.com.distrischool.professortecadm.repository.ProfessorRepository;
+import br.com.distrischool.professortecadm.repository.TecnicoAdministrativoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StaffSearchIndexTest {
+
+    private StaffSearchIndex index;
+
+    @BeforeEach
+    void montaIndice() {
+        index = new StaffSearchIndex(mock(ProfessorRepository.class), mock(TecnicoAdministrativoRepository.class),
+                mock(PlatformTransactionManager.class));
+        // fora de transação, as atualizações valem na hora
+        index.professorSaved(professor(1L, "João Conceição", "Matemática"));
+        index.professorSaved(professor(2L, "Joana Silva", "Física"));
+        index.professorSaved(professor(3L, "Márcia Joaquina", "Matemática Aplicada"));
+    }
+
+    @Test
+    void normalizaAcentosCaixaESeparadores() {
+        assertThat(StaffSearchIndex.tokenize("  João-Conceição, MATEMÁTICA  ")).containsExactly("joao", "conceicao", "matematica");
+        assertThat(StaffSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void cadaTermoCasaPorPrefixo() {
+        assertThat(index.searchProfessores("jo", 10)).extracting(ProfessorResponse::id).containsExactly(2L, 1L, 3L);
+        assertThat(index.searchProfessores("joa", 10)).extracting(ProfessorResponse::id).containsExactly(2L, 1L, 3L);
+        assertThat(index.searchProfessores("joao", 10)).extracting(ProfessorResponse::id).containsExactly(1L);
+    }
+
+    @Test
+    void consultaSemAcentoCasaNomeAcentuadoEViceVersa() {
+        assertThat(index.searchProfessores("conceicao", 10)).extracting(ProfessorResponse::id).containsExactly(1L);
+        assertThat(index.searchProfessores("FÍSI", 10)).extracting(ProfessorResponse::id).containsExactly(2L);
+    }
+
+    @Test
+    void todosOsTermosPrecisamCasarEmQualquerCampo() {
+        assertThat(index.searchProfessores("mat jo", 10)).extracting(ProfessorResponse::id).containsExactly(1L, 3L);
+        assertThat(index.searchProfessores("matematica aplic", 10)).extracting(ProfessorResponse::id).containsExactly(3L);
+        assertThat(index.searchProfessores("joana matematica", 10)).isEmpty();
+    }
+
+    @Test
+    void resultadoOrdenadoPorNomeELimitado() {
+        assertThat(index.searchProfessores("jo", 2)).extracting(ProfessorResponse::nome)
+                .containsExactly("Joana Silva", "João Conceição");
+        assertThat(index.searchProfessores("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void atualizacaoERemocaoRefletemNaBusca() {
+        index.professorSaved(professor(2L, "Joana Silva", "Química"));
+        index.professorRemoved(1L);
+
+        assertThat(index.searchProfessores("fisica", 10)).isEmpty();
+        assertThat(index.searchProfessores("quim", 10)).extracting(ProfessorResponse::id).containsExactly(2L);
+        assertThat(index.searchProfessores("conceicao", 10)).isEmpty();
+    }
+
+    private static Professor professor(Long id, String nome, String especialidade) {
+        return new Professor(id, nome, "p" + id + "@distrischool.com", especialidade, LocalDate.of(2020, 1, 1), null);
+    }
+}